@@ -174,12 +174,26 @@ export const OrderProvider = ({ children }) => {
     }
   };
 
+  // Full order (items, address, price breakdown) for a summary from the order list; does not toggle the page loading state
+  const getOrderDetails = async (orderId) => {
+    try {
+      const response = await axios.get(`/api/orders/${orderId}`);
+      return { success: true, order: response.data };
+    } catch (error) {
+      return { 
+        success: false, 
+        error: error.response?.data?.message || 'Failed to fetch order details' 
+      };
+    }
+  };
+
   const getUserOrders = async (userId) => {
     setLoading(true);
     try {
+      // The list endpoint returns the newest page of order summaries
       const response = await axios.get(`/api/orders/user/${userId}`);
-      setOrderHistory(response.data);
-      return { success: true, orders: response.data };
+      setOrderHistory(response.data.items);
+      return { success: true, orders: response.data.items };
     } catch (error) {
       return { 
         success: false, 
@@ -269,6 +283,7 @@ export const OrderProvider = ({ children }) => {
     getCartItemCount,
     createOrder,
     getOrderById,
+    getOrderDetails,
     getUserOrders,
     updateOrderStatus,
     cancelOrder,
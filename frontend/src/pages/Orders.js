@@ -5,10 +5,30 @@ import { FaClock, FaCheckCircle, FaTimesCircle, FaTruck, FaUtensils } from 'reac
 import './Orders.css';
 
 const Orders = () => {
-  const { orderHistory, loading } = useOrder();
+  const { orderHistory, loading, getOrderDetails } = useOrder();
   const [selectedOrder, setSelectedOrder] = useState(null);
+  // Full orders fetched on demand; the order list returns summaries without items or address
+  const [orderDetails, setOrderDetails] = useState({});
+  const [detailsError, setDetailsError] = useState(null);
   const navigate = useNavigate();
 
+  const toggleDetails = async (orderId) => {
+    if (selectedOrder === orderId) {
+      setSelectedOrder(null);
+      return;
+    }
+    setSelectedOrder(orderId);
+    setDetailsError(null);
+    if (!orderDetails[orderId]) {
+      const result = await getOrderDetails(orderId);
+      if (result.success) {
+        setOrderDetails(prev => ({ ...prev, [orderId]: result.order }));
+      } else {
+        setDetailsError(result.error);
+      }
+    }
+  };
+
   const getStatusIcon = (status) => {
     switch (status) {
       case 'PENDING':
@@ -47,6 +67,9 @@ const Orders = () => {
     }
   };
 
+  // Summaries from the API carry totalAmount; orders placed in this browser carry total
+  const formatAmount = (amount) => Number(amount || 0).toFixed(2);
+
   const formatDate = (dateString) => {
     const date = new Date(dateString);
     return date.toLocaleDateString('en-IN', {
@@ -100,62 +123,85 @@ const Orders = () => {
         </div>
 
         <div className="orders-list">
-          {orderHistory.map((order) => (
-            <div key={order.id} className="order-card">
-              <div className="order-header">
-                <div className="order-info">
-                  <h3 className="order-id">Order #{order.id}</h3>
-                  <p className="order-date">{formatDate(order.createdAt)}</p>
-                </div>
-                <div className="order-status">
-                  {getStatusIcon(order.status)}
-                  <span className="status-text">{getStatusText(order.status)}</span>
+          {orderHistory.map((summary) => {
+            // Orders placed in this browser are stored in full; list summaries need their details fetched
+            const order = summary.items ? summary : { ...summary, ...orderDetails[summary.id] };
+            const expanded = summary.items || selectedOrder === summary.id;
+            return (
+              <div key={order.id} className="order-card">
+                <div className="order-header">
+                  <div className="order-info">
+                    <h3 className="order-id">Order #{order.orderNumber || order.id}</h3>
+                    <p className="order-date">{formatDate(order.orderTime || order.createdAt)}</p>
+                    <p className="order-amount">₹{formatAmount(order.totalAmount ?? order.total)}</p>
+                  </div>
+                  <div className="order-status">
+                    {getStatusIcon(order.status)}
+                    <span className="status-text">{getStatusText(order.status)}</span>
+                  </div>
                 </div>
-              </div>
 
-              <div className="order-details">
-                <div className="order-items">
-                  <h4>Items Ordered:</h4>
-                  {order.items && order.items.map((item, index) => (
-                    <div key={index} className="order-item">
-                      <span className="item-name">{item.menuItemName}</span>
-                      <span className="item-quantity">x{item.quantity}</span>
-                      <span className="item-price">₹{item.unitPrice * item.quantity}</span>
+                {!summary.items && (
+                  <button 
+                    className="btn btn-outline btn-sm"
+                    onClick={() => toggleDetails(summary.id)}
+                  >
+                    {selectedOrder === summary.id ? 'Hide details' : 'View items & address'}
+                  </button>
+                )}
+
+                {expanded && !order.items && (
+                  <p className="order-date">{detailsError && selectedOrder === summary.id ? detailsError : 'Loading order details...'}</p>
+                )}
+
+                {expanded && order.items && (
+                  <>
+                    <div className="order-details">
+                      <div className="order-items">
+                        <h4>Items Ordered:</h4>
+                        {order.items && order.items.map((item, index) => (
+                          <div key={index} className="order-item">
+                            <span className="item-name">{item.menuItemName}</span>
+                            <span className="item-quantity">x{item.quantity}</span>
+                            <span className="item-price">₹{item.unitPrice * item.quantity}</span>
+                          </div>
+                        ))}
+                      </div>
+
+                      <div className="order-summary">
+                        <div className="summary-row">
+                          <span>Subtotal:</span>
+                          <span>₹{order.subtotal?.toFixed(2) || '0.00'}</span>
+                        </div>
+                        <div className="summary-row">
+                          <span>Delivery Fee:</span>
+                          <span>{order.deliveryFee === 0 ? 'FREE' : `₹${order.deliveryFee?.toFixed(2) || '0.00'}`}</span>
+                        </div>
+                        <div className="summary-row">
+                          <span>Tax:</span>
+                          <span>₹{order.tax?.toFixed(2) || '0.00'}</span>
+                        </div>
+                        <div className="summary-row total">
+                          <span>Total:</span>
+                          <span>₹{formatAmount(order.totalAmount ?? order.total)}</span>
+                        </div>
+                      </div>
                     </div>
-                  ))}
-                </div>
 
-                <div className="order-summary">
-                  <div className="summary-row">
-                    <span>Subtotal:</span>
-                    <span>₹{order.subtotal?.toFixed(2) || '0.00'}</span>
-                  </div>
-                  <div className="summary-row">
-                    <span>Delivery Fee:</span>
-                    <span>{order.deliveryFee === 0 ? 'FREE' : `₹${order.deliveryFee?.toFixed(2) || '0.00'}`}</span>
-                  </div>
-                  <div className="summary-row">
-                    <span>Tax:</span>
-                    <span>₹{order.tax?.toFixed(2) || '0.00'}</span>
-                  </div>
-                  <div className="summary-row total">
-                    <span>Total:</span>
-                    <span>₹{order.total?.toFixed(2) || '0.00'}</span>
-                  </div>
-                </div>
+                    {order.deliveryAddress && (
+                      <div className="delivery-address">
+                        <h4>Delivery Address:</h4>
+                        <p>
+                          {order.deliveryAddress.street}, {order.deliveryAddress.city}, {order.deliveryAddress.state} - {order.deliveryAddress.pincode}
+                        </p>
+                        <p>Contact: {order.deliveryAddress.contactName} - {order.deliveryAddress.contactNumber}</p>
+                      </div>
+                    )}
+                  </>
+                )}
               </div>
-
-              {order.deliveryAddress && (
-                <div className="delivery-address">
-                  <h4>Delivery Address:</h4>
-                  <p>
-                    {order.deliveryAddress.street}, {order.deliveryAddress.city}, {order.deliveryAddress.state} - {order.deliveryAddress.pincode}
-                  </p>
-                  <p>Contact: {order.deliveryAddress.contactName} - {order.deliveryAddress.contactNumber}</p>
-                </div>
-              )}
-            </div>
-          ))}
+            );
+          })}
         </div>
       </div>
     </div>
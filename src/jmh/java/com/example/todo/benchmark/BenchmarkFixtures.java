@@ -0,0 +1,81 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.MenuItem;
+import com.example.todo.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistically shaped orders and menu items shared by the benchmarks
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    public static Order order(int itemCount) {
+        Order order = new Order("64f1c0ffee0000000000user", "64f1c0ffee000000restaurant", Order.MealType.LUNCH);
+        order.setId("64f1c0ffee0000000000order");
+        order.setOrderNumber("ORD1697540000000AB12");
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        order.setOrderTime(LocalDateTime.of(2024, 10, 17, 8, 45));
+        order.setScheduledDeliveryTime(LocalTime.of(13, 15));
+        order.setPaymentMethod(Order.PaymentMethod.UPI);
+        order.setPaymentStatus(Order.PaymentStatus.COMPLETED);
+        order.setPaymentTransactionId("TXN-000123456789");
+        order.setDeliveryInstructions("Leave at the reception desk");
+
+        Order.DeliveryAddress address = new Order.DeliveryAddress(
+                "42 MG Road, 3rd Floor", "Bengaluru", "Karnataka", "560001", "+91-9876543210");
+        address.setLandmark("Opposite the metro station");
+        address.setContactName("Asha Rao");
+        order.setDeliveryAddress(address);
+
+        List<Order.OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            BigDecimal unitPrice = new BigDecimal("149.00").add(BigDecimal.valueOf(i * 10L));
+            Order.OrderItem item = new Order.OrderItem("menu-item-" + i, "Thali combo " + i, 1 + (i % 3), unitPrice);
+            item.setCustomizations(List.of(
+                    new Order.CustomizationSelection("Spice level", "Medium", BigDecimal.ZERO),
+                    new Order.CustomizationSelection("Add-on", "Extra raita", new BigDecimal("25.00"))));
+            item.setSpecialInstructions(i % 2 == 0 ? "Less oil" : null);
+            items.add(item);
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    public static List<MenuItem> menu(int itemCount) {
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            MenuItem menuItem = new MenuItem("Thali combo " + i,
+                    "Rice, two curries, dal, roti, salad and dessert of the day",
+                    new BigDecimal("149.00").add(BigDecimal.valueOf(i * 10L)), "64f1c0ffee000000restaurant");
+            menuItem.setId("menu-item-" + i);
+            menuItem.setCategory(i % 2 == 0 ? "Main Course" : "Combo");
+            menuItem.setMealTypes(List.of("LUNCH", "DINNER"));
+            menuItem.setTags(List.of("Popular", "Chef's Special"));
+            menuItem.setVegetarian(i % 3 != 0);
+            menuItem.setSpiceLevel(i % 5);
+            menuItem.setCalories(650);
+            menuItem.setImageUrl("https://cdn.example.com/menu/thali-" + i + ".jpg");
+
+            MenuItem.CustomizationOption spice = new MenuItem.CustomizationOption("Spice level", "radio", true);
+            spice.setChoices(List.of(
+                    new MenuItem.CustomizationChoice("Mild", BigDecimal.ZERO),
+                    new MenuItem.CustomizationChoice("Medium", BigDecimal.ZERO),
+                    new MenuItem.CustomizationChoice("Hot", BigDecimal.ZERO)));
+            MenuItem.CustomizationOption addOns = new MenuItem.CustomizationOption("Add-on", "checkbox", false);
+            addOns.setChoices(List.of(
+                    new MenuItem.CustomizationChoice("Extra raita", new BigDecimal("25.00")),
+                    new MenuItem.CustomizationChoice("Papad", new BigDecimal("15.00")),
+                    new MenuItem.CustomizationChoice("Gulab jamun", new BigDecimal("40.00"))));
+            menuItem.setCustomizationOptions(List.of(spice, addOns));
+            menu.add(menuItem);
+        }
+        return menu;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.TodoApplication;
+import com.example.todo.config.ThreadingConfig;
+import com.example.todo.model.MenuItem;
+import com.example.todo.model.Order;
+import com.example.todo.model.Restaurant;
+import com.example.todo.service.MenuService;
+import com.example.todo.service.RestaurantService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput and latency of a menu read and an order placement over HTTP, with Tomcat on
+ * its platform worker pool versus virtual threads. Many more client threads than Tomcat workers
+ * reproduce a window opening. Throughput is reported in ops/s, and SampleTime gives the p99.
+ * The virtual-thread trial needs a Java 21 runtime and fails on an older one rather than reporting
+ * platform threads as virtual: run with JAVA_HOME pointing at a JDK 21, e.g.
+ * mvn -Pjmh verify -DskipTests -Djmh.includes=RequestThreading
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(400)
+@State(Scope.Benchmark)
+public class RequestThreadingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest menuRequest;
+    private HttpRequest orderRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(TodoApplication.class, OrderingWindowClock.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        // Measure request handling, not the kitchen capacity limit
+                        "order.capacity.default-per-slot=0")
+                .run();
+        if (context.getBean(ThreadingConfig.class).isVirtualThreads() != virtualThreads) {
+            context.close();
+            throw new IllegalStateException("virtualThreads=" + virtualThreads + " cannot be measured on Java "
+                    + Runtime.version().feature() + "; run this benchmark on a Java 21+ JDK");
+        }
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Benchmark Kitchen");
+        restaurant.setActive(true);
+        restaurant.setDeliveryAreas(List.of("560001"));
+        restaurant = context.getBean(RestaurantService.class).createRestaurant(restaurant);
+
+        MenuService menuService = context.getBean(MenuService.class);
+        List<String> menuItemIds = new ArrayList<>();
+        for (MenuItem menuItem : BenchmarkFixtures.menu(25)) {
+            menuItem.setId(null);
+            menuItem.setRestaurantId(restaurant.getId());
+            menuItemIds.add(menuService.createMenuItem(menuItem).getId());
+        }
+
+        Order order = BenchmarkFixtures.order(3);
+        order.setId(null);
+        order.setRestaurantId(restaurant.getId());
+        for (int i = 0; i < order.getItems().size(); i++) {
+            order.getItems().get(i).setMenuItemId(menuItemIds.get(i));
+        }
+        byte[] orderJson = context.getBean(ObjectMapper.class).writeValueAsBytes(order);
+
+        URI baseUri = URI.create("http://localhost:" + port);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        menuRequest = HttpRequest.newBuilder(baseUri.resolve("/api/menu/restaurant/" + restaurant.getId()))
+                .GET()
+                .build();
+        orderRequest = HttpRequest.newBuilder(baseUri.resolve("/api/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(orderJson))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getRestaurantMenu() throws Exception {
+        return send(menuRequest);
+    }
+
+    @Benchmark
+    public int createOrder() throws Exception {
+        return send(orderRequest);
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    // Ticking clock set to 8 AM today, inside the lunch ordering window
+    @Configuration
+    public static class OrderingWindowClock {
+
+        @Bean
+        @Primary
+        public Clock benchmarkClock() {
+            ZoneId zone = ZoneId.systemDefault();
+            Duration offset = Duration.between(Clock.system(zone).instant(),
+                    LocalDate.now(zone).atTime(LocalTime.of(8, 0)).atZone(zone).toInstant());
+            return Clock.offset(Clock.system(zone), offset);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.todo.service;
+
+import com.example.todo.benchmark.BenchmarkFixtures;
+import com.example.todo.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order pricing (BigDecimal totals) and order number generation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPricingBenchmark {
+
+    @Param({"1", "5", "25"})
+    private int itemCount;
+
+    private OrderService orderService;
+    private OrderNumberGenerator orderNumberGenerator;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderService();
+        orderNumberGenerator = new OrderNumberGenerator(1, Clock.systemUTC());
+        order = BenchmarkFixtures.order(itemCount);
+    }
+
+    @Benchmark
+    public BigDecimal calculateOrderTotals() {
+        orderService.calculateOrderTotals(order);
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public String generateOrderNumber() {
+        return orderNumberGenerator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateOrderNumberContended() {
+        return orderNumberGenerator.next();
+    }
+}
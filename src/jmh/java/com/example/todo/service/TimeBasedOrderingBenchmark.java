@@ -0,0 +1,55 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordering window checks that run on every menu, restaurant and order request
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeBasedOrderingBenchmark {
+
+    @Param({"BREAKFAST", "LUNCH", "DINNER"})
+    private Order.MealType mealType;
+
+    private TimeBasedOrderingService timeBasedOrderingService;
+
+    @Setup
+    public void setUp() {
+        timeBasedOrderingService = new TimeBasedOrderingService(Clock.systemDefaultZone());
+    }
+
+    @Benchmark
+    public boolean isOrderingAllowed() {
+        return timeBasedOrderingService.isOrderingAllowed(mealType);
+    }
+
+    @Benchmark
+    public List<TimeBasedOrderingService.OrderingWindow> getAvailableOrderingWindows() {
+        return timeBasedOrderingService.getAvailableOrderingWindows();
+    }
+
+    @Benchmark
+    public TimeBasedOrderingService.TimeRemaining getTimeRemainingForOrdering() {
+        return timeBasedOrderingService.getTimeRemainingForOrdering(mealType);
+    }
+}
@@ -3,9 +3,11 @@ package com.example.todo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 
 @SpringBootApplication
 @EnableMongoRepositories
+@EnableReactiveMongoRepositories(basePackages = "com.example.todo.repository.reactive")
 public class TodoApplication {
     
     public static void main(String[] args) {
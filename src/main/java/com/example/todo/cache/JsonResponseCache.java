@@ -0,0 +1,226 @@
+package com.example.todo.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-encoded JSON bodies of hot read responses, written to the servlet output stream as is.
+ * Each view is encoded once per resource version (see {@link ResourceVersions}) and optionally
+ * gzipped once, so repeated reads skip Jackson and compression entirely. Views are grouped per
+ * resource so that one write drops them together, and whole groups are evicted in LRU order
+ * once the encoded bytes exceed the configured limit. Entries also expire after the menu cache
+ * TTL, so a write this instance has not heard of is never served for longer than the entity
+ * cache would serve it.
+ */
+@Component
+public class JsonResponseCache {
+
+    public static final String RESTAURANTS_GROUP = "restaurants";
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final boolean gzipEnabled;
+    private final long ttlMillis;
+
+    // Access-ordered so the eldest group is always the least recently used
+    private final LinkedHashMap<String, Group> groups = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public JsonResponseCache(ObjectMapper objectMapper,
+                             @Value("${response.cache.max-bytes:33554432}") long maxBytes,
+                             @Value("${response.cache.gzip:true}") boolean gzipEnabled,
+                             @Value("${menu.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.gzipEnabled = gzipEnabled;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Cache group holding the menu views of one restaurant
+     */
+    public static String menuGroup(String restaurantId) {
+        return "menu:" + restaurantId;
+    }
+
+    /**
+     * Answer a GET for a cached view: 304 if the client holds the current version, otherwise the
+     * encoded body (gzipped when the client accepts it), encoding it on a miss
+     */
+    public void write(String group, String view, String version, Supplier<?> loader,
+                      ServletWebRequest request) throws IOException {
+        HttpServletResponse response = request.getResponse();
+        boolean gzip = gzipEnabled && acceptsGzip(request.getRequest());
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (gzipEnabled) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        // The gzip and identity bodies are different representations, so each gets its own strong tag
+        if (request.checkNotModified(gzip ? version + "-gz" : version)) {
+            return;
+        }
+
+        Entry entry = get(group, view, version, loader);
+        byte[] body = gzip ? entry.gzip : entry.json;
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Drop every cached view of a group
+     */
+    public void invalidate(String group) {
+        synchronized (groups) {
+            Group removed = groups.remove(group);
+            if (removed != null) {
+                totalBytes -= removed.bytes;
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Get cache statistics for monitoring
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (groups) {
+            stats.put("groups", groups.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("max_bytes", maxBytes);
+        stats.put("gzip_enabled", gzipEnabled);
+        stats.put("ttl_seconds", ttlMillis / 1000);
+        stats.put("hit_count", hitCount);
+        stats.put("miss_count", missCount);
+        stats.put("hit_ratio", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("eviction_count", evictions.sum());
+        stats.put("expiration_count", expirations.sum());
+        stats.put("invalidation_count", invalidations.sum());
+        stats.put("timestamp", System.currentTimeMillis());
+        return stats;
+    }
+
+    private Entry get(String group, String view, String version, Supplier<?> loader) throws IOException {
+        long now = System.currentTimeMillis();
+        synchronized (groups) {
+            Group cached = groups.get(group);
+            Entry entry = cached != null ? cached.views.get(view) : null;
+            if (entry != null && entry.version.equals(version)) {
+                if (now - entry.createdAt <= ttlMillis) {
+                    hits.increment();
+                    return entry;
+                }
+                expirations.increment();
+            }
+        }
+
+        misses.increment();
+        byte[] json = objectMapper.writeValueAsBytes(loader.get());
+        Entry loaded = new Entry(version, now, json, gzipEnabled ? gzip(json) : null);
+        store(group, view, loaded);
+        return loaded;
+    }
+
+    // An entry stored under an outdated version after a racing write is never served, only evicted
+    private void store(String group, String view, Entry entry) {
+        if (entry.size() > maxBytes) {
+            return;
+        }
+        synchronized (groups) {
+            Group target = groups.computeIfAbsent(group, key -> new Group());
+            Entry replaced = target.views.put(view, entry);
+            long delta = entry.size() - (replaced != null ? replaced.size() : 0);
+            target.bytes += delta;
+            totalBytes += delta;
+
+            Iterator<Map.Entry<String, Group>> eldest = groups.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Group evicted = eldest.next().getValue();
+                eldest.remove();
+                totalBytes -= evicted.bytes;
+                evictions.increment();
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // Encoded bodies of one view at one version
+    private static class Entry {
+        private final String version;
+        private final long createdAt;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        Entry(String version, long createdAt, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.createdAt = createdAt;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        long size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    // Inner class holding the cached views of one resource
+    private static class Group {
+        private final Map<String, Entry> views = new HashMap<>();
+        private long bytes;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.todo.cache;
+
+import com.example.todo.model.MenuItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of restaurant menus.
+ * Entries are grouped per restaurant so that a single menu write drops every cached view
+ * of that restaurant's menu. Restaurants are evicted in LRU order once the size limit is
+ * reached, and whole entries expire after the configured TTL.
+ */
+@Component
+public class MenuCatalogCache {
+
+    private final int maxRestaurants;
+    private final long ttlMillis;
+
+    // Access-ordered so the eldest entry is always the least recently used restaurant
+    private final LinkedHashMap<String, RestaurantMenu> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public MenuCatalogCache(@Value("${menu.cache.max-restaurants:1000}") int maxRestaurants,
+                            @Value("${menu.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxRestaurants = maxRestaurants;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RestaurantMenu> eldest) {
+                if (size() > MenuCatalogCache.this.maxRestaurants) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a cached menu view for a restaurant, loading it on a miss
+     */
+    public List<MenuItem> get(String restaurantId, String view, Supplier<List<MenuItem>> loader) {
+        RestaurantMenu menu = acquire(restaurantId);
+        List<MenuItem> cached = menu.views.get(view);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        List<MenuItem> loaded = List.copyOf(loader.get());
+        // If the restaurant was invalidated while loading, this lands on a detached entry and is dropped
+        List<MenuItem> raced = menu.views.putIfAbsent(view, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /**
+     * Drop every cached view of a restaurant's menu
+     */
+    public void invalidate(String restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(restaurantId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Drop all cached menus
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get cache statistics for monitoring
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("max_restaurants", maxRestaurants);
+        stats.put("ttl_seconds", ttlMillis / 1000);
+        stats.put("hit_count", hitCount);
+        stats.put("miss_count", missCount);
+        stats.put("hit_ratio", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("eviction_count", evictions.sum());
+        stats.put("expiration_count", expirations.sum());
+        stats.put("invalidation_count", invalidations.sum());
+        stats.put("timestamp", System.currentTimeMillis());
+        return stats;
+    }
+
+    private RestaurantMenu acquire(String restaurantId) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            RestaurantMenu menu = entries.get(restaurantId);
+            if (menu != null && now - menu.createdAt > ttlMillis) {
+                entries.remove(restaurantId);
+                expirations.increment();
+                menu = null;
+            }
+            if (menu == null) {
+                menu = new RestaurantMenu(now);
+                entries.put(restaurantId, menu);
+            }
+            return menu;
+        }
+    }
+
+    // Inner class holding the cached views of one restaurant's menu
+    private static class RestaurantMenu {
+        private final long createdAt;
+        private final Map<String, List<MenuItem>> views = new ConcurrentHashMap<>();
+
+        RestaurantMenu(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
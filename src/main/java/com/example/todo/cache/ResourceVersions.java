@@ -0,0 +1,242 @@
+package com.example.todo.cache;
+
+import com.example.todo.config.ThreadingConfig;
+import com.example.todo.model.Restaurant;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Version stamps behind the ETags of restaurant and menu reads.
+ * A restaurant's stamp is its persisted document version; menus and restaurant lists are stamped
+ * with counters persisted in resource_versions, so every instance hands out the same tags. The
+ * stamps are kept in memory. The first refresh reads them all; later ones, every few seconds,
+ * read only the counters and restaurants whose updatedAt moved since the previous refresh, and
+ * drop the cached menus and responses of anything another instance changed. Changed restaurants
+ * are handed to the registered listeners (the in-memory restaurant indexes) before any list
+ * response is dropped, so a moved list tag never re-encodes stale index data.
+ * Writes that bypass the services bump no stamp; the caches behind the tags expire their entries
+ * after the menu cache TTL, which bounds how long such a write goes unserved.
+ */
+@Component
+public class ResourceVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceVersions.class);
+
+    private static final String COLLECTION = "resource_versions";
+    private static final String RESTAURANT_LIST_ID = "restaurants";
+    private static final String MENU_ID_PREFIX = "menu:";
+    // Changes are re-read this far back, covering clock skew between instances and writes in flight
+    private static final long CHANGE_OVERLAP_MILLIS = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final MenuCatalogCache menuCatalogCache;
+    private final JsonResponseCache jsonResponseCache;
+    private final Clock clock;
+    private final ScheduledExecutorService refresher;
+
+    private final Map<String, Long> restaurantVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> menuVersions = new ConcurrentHashMap<>();
+    private final AtomicLong restaurantListVersion = new AtomicLong();
+    // Set by ratings; the next refresh bumps the list version once for all of them
+    private final AtomicBoolean restaurantListStale = new AtomicBoolean();
+    private final List<Consumer<List<Restaurant>>> restaurantListeners = new CopyOnWriteArrayList<>();
+    // Start of the previous refresh; null until the first, full one
+    private Instant refreshedAt;
+
+    public ResourceVersions(MongoTemplate mongoTemplate,
+                            MenuCatalogCache menuCatalogCache,
+                            JsonResponseCache jsonResponseCache,
+                            Clock clock,
+                            @Value("${resource.versions.refresh-seconds:5}") long refreshSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.menuCatalogCache = menuCatalogCache;
+        this.jsonResponseCache = jsonResponseCache;
+        this.clock = clock;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(ThreadingConfig.daemonThreads("resource-versions-"));
+        this.refresher.scheduleWithFixedDelay(this::scheduledRefresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Register a listener for restaurants other instances (or this one) wrote since the previous refresh
+     */
+    public void addRestaurantListener(Consumer<List<Restaurant>> listener) {
+        restaurantListeners.add(listener);
+    }
+
+    /**
+     * Re-read the stamps that moved in MongoDB, dropping cached menus and responses whose stamp moved
+     */
+    public synchronized void refresh() {
+        Instant startedAt = clock.instant();
+        Query changedSince = refreshedAt == null ? new Query()
+                : Query.query(Criteria.where("updatedAt").gte(Date.from(refreshedAt.minusMillis(CHANGE_OVERLAP_MILLIS))));
+        boolean full = refreshedAt == null;
+
+        if (restaurantListStale.getAndSet(false)) {
+            try {
+                // Picked up by the counter read below, after the rated restaurants reach the listeners
+                increment(RESTAURANT_LIST_ID);
+            } catch (RuntimeException e) {
+                restaurantListStale.set(true);
+                throw e;
+            }
+        }
+
+        // Counters are read first: a restaurant write is stored before the list bump announcing it,
+        // so every change a moved counter announces is among the restaurants read below
+        List<Document> counters = mongoTemplate.find(changedSince, Document.class, COLLECTION);
+
+        if (full) {
+            // Only the stamps; the listeners build their own state from a full read at startup
+            Query restaurantQuery = new Query();
+            restaurantQuery.fields().include("_id", "version");
+            for (Document restaurant : mongoTemplate.find(restaurantQuery, Document.class,
+                    mongoTemplate.getCollectionName(Restaurant.class))) {
+                Number version = (Number) restaurant.get("version");
+                if (version != null) {
+                    restaurantVersions.merge(restaurant.get("_id").toString(), version.longValue(), Math::max);
+                }
+            }
+        } else {
+            List<Restaurant> changed = mongoTemplate.find(changedSince, Restaurant.class);
+            for (Restaurant restaurant : changed) {
+                if (restaurant.getVersion() != null) {
+                    restaurantVersions.merge(restaurant.getId(), restaurant.getVersion(), Math::max);
+                }
+            }
+            if (!changed.isEmpty()) {
+                restaurantListeners.forEach(listener -> listener.accept(changed));
+            }
+        }
+
+        for (Document counter : counters) {
+            String id = counter.getString("_id");
+            long version = ((Number) counter.get("version")).longValue();
+            if (RESTAURANT_LIST_ID.equals(id)) {
+                if (restaurantListVersion.getAndAccumulate(version, Math::max) < version) {
+                    jsonResponseCache.invalidate(JsonResponseCache.RESTAURANTS_GROUP);
+                }
+            } else if (id.startsWith(MENU_ID_PREFIX)) {
+                String restaurantId = id.substring(MENU_ID_PREFIX.length());
+                // Merged with max so a local write that landed after the read keeps its newer stamp
+                long known = menuVersions.getOrDefault(restaurantId, 0L);
+                menuVersions.merge(restaurantId, version, Math::max);
+                if (known < version) {
+                    menuCatalogCache.invalidate(restaurantId);
+                    jsonResponseCache.invalidate(JsonResponseCache.menuGroup(restaurantId));
+                }
+            }
+        }
+        refreshedAt = startedAt;
+    }
+
+    /**
+     * Record a restaurant write; every restaurant list may have changed with it
+     */
+    public void restaurantChanged(Restaurant restaurant) {
+        if (restaurant.getId() != null) {
+            if (restaurant.getVersion() != null) {
+                restaurantVersions.merge(restaurant.getId(), restaurant.getVersion(), Math::max);
+            } else {
+                restaurantVersions.remove(restaurant.getId());
+            }
+        }
+        restaurantListVersion.accumulateAndGet(increment(RESTAURANT_LIST_ID), Math::max);
+    }
+
+    /**
+     * Record a new rating. The restaurant's own tag moves at once; the list tag moves with the next
+     * refresh, once for every rating since the previous one, so rating bursts keep the list caches warm.
+     */
+    public void restaurantRated(Restaurant restaurant) {
+        if (restaurant.getId() != null && restaurant.getVersion() != null) {
+            restaurantVersions.merge(restaurant.getId(), restaurant.getVersion(), Math::max);
+        }
+        restaurantListStale.set(true);
+    }
+
+    /**
+     * Record a write to a restaurant's menu
+     */
+    public void menuChanged(String restaurantId) {
+        if (restaurantId != null) {
+            menuVersions.merge(restaurantId, increment(MENU_ID_PREFIX + restaurantId), Math::max);
+        }
+    }
+
+    /**
+     * ETag of a restaurant document, or null if its version is not known here
+     */
+    public String restaurantETag(String restaurantId) {
+        Long version = restaurantVersions.get(restaurantId);
+        return version != null ? restaurantETag(version) : null;
+    }
+
+    /**
+     * ETag of a restaurant document at the given version
+     */
+    public String restaurantETag(long version) {
+        return "r" + version;
+    }
+
+    /**
+     * ETag shared by the restaurant list views
+     */
+    public String restaurantListETag() {
+        return "rl-" + restaurantListVersion.get();
+    }
+
+    /**
+     * ETag shared by the menu views of one restaurant
+     */
+    public String menuETag(String restaurantId) {
+        return "m-" + menuVersions.getOrDefault(restaurantId, 0L);
+    }
+
+    private long increment(String id) {
+        Document counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update().inc("version", 1L).set("updatedAt", Date.from(clock.instant())),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class,
+                COLLECTION);
+        return ((Number) counter.get("version")).longValue();
+    }
+
+    private void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // A failed refresh must not cancel the schedule
+            logger.warn("Refreshing resource versions failed", e);
+        }
+    }
+}
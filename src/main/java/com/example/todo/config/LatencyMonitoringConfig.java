@@ -0,0 +1,42 @@
+package com.example.todo.config;
+
+import com.example.todo.monitoring.LatencyRecorder;
+import com.example.todo.monitoring.MongoCommandLatencyListener;
+import com.example.todo.monitoring.RepositoryMethodTagger;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Wiring for the latency histograms served at /api/monitoring/latency.
+ * The command listener is added to every MongoClient Spring Boot builds (sync and reactive), and
+ * every Spring Data repository proxy gets advice naming the repository method behind each command.
+ * HTTP requests are timed by {@link com.example.todo.monitoring.HttpLatencyFilter}.
+ */
+@Configuration
+public class LatencyMonitoringConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandLatencyCustomizer(LatencyRecorder latencyRecorder) {
+        MongoCommandLatencyListener listener = new MongoCommandLatencyListener(latencyRecorder);
+        return builder -> builder.addCommandListener(listener);
+    }
+
+    // Static so that it is registered before, and independently of, the repositories it customizes
+    @Bean
+    public static BeanPostProcessor repositoryMethodTaggingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    new RepositoryMethodTagger(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
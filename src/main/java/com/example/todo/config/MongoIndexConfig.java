@@ -0,0 +1,57 @@
+package com.example.todo.config;
+
+import com.example.todo.model.MenuItem;
+import com.example.todo.model.Order;
+import com.example.todo.model.OrderSlotCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the indexes declared on query-heavy entities at startup.
+ * Spring Data no longer creates annotated indexes automatically, so the collections
+ * backing the hot repository queries are listed here explicitly. Indexes dropped from the
+ * entities are removed from existing collections as well.
+ */
+@Configuration
+public class MongoIndexConfig {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Order.class, MenuItem.class, OrderSlotCounter.class);
+    
+    // Indexes earlier versions declared that no longer serve a query; dropped so writes stop maintaining them
+    private static final Map<Class<?>, List<String>> OBSOLETE_INDEXES = Map.of(Order.class, List.of(
+            "user_mealType", "user_paymentStatus", "user_paymentMethod", "user_promoCode", "user_pincode",
+            "user_totalAmount", "user_scheduledDeliveryTime",
+            "scheduledDeliveryTime", "totalAmount", "paymentMethod", "paymentStatus", "promoCode"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoMappingContext);
+        for (Class<?> entityClass : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entityClass);
+            resolver.resolveIndexFor(entityClass).forEach(indexOps::ensureIndex);
+            
+            List<String> obsolete = OBSOLETE_INDEXES.getOrDefault(entityClass, List.of());
+            indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .filter(obsolete::contains)
+                    .forEach(indexOps::dropIndex);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.todo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread model for request handling and internal background work.
+ * With spring.threads.virtual.enabled=true on Java 21+, Spring Boot runs Tomcat requests and its
+ * task executors on virtual threads, and the executors created here do the same. The build targets
+ * Java 17, so on an older runtime the flag is ignored with a warning and platform threads are used.
+ * Run with -Djdk.tracePinnedThreads=short to log any code that pins a carrier thread.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    private final boolean virtualThreads;
+
+    public ThreadingConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested) {
+        this.virtualThreads = virtualThreadsRequested && Runtime.version().feature() >= 21;
+        if (virtualThreadsRequested && !virtualThreads) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                    Runtime.version().feature());
+        }
+        logger.info("Request handling and background work run on {} threads", virtualThreads ? "virtual" : "platform");
+    }
+
+    /**
+     * Whether virtual threads are in use
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Executor for blocking background work: a virtual thread per task in virtual-thread mode,
+     * otherwise a pool of daemon platform threads (fixed size, or cached when size is 0)
+     */
+    public Executor newExecutor(String threadNamePrefix, int platformThreads) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor(threadNamePrefix);
+        }
+        return platformThreads > 0
+                ? Executors.newFixedThreadPool(platformThreads, daemonThreads(threadNamePrefix))
+                : Executors.newCachedThreadPool(daemonThreads(threadNamePrefix));
+    }
+
+    /**
+     * Factory for named daemon platform threads
+     */
+    public static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
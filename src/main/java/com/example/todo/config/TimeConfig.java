@@ -0,0 +1,19 @@
+package com.example.todo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Single source of "now" for the application.
+ * Services take this Clock instead of calling LocalTime.now(), so tests can substitute a fixed clock.
+ */
+@Configuration
+public class TimeConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
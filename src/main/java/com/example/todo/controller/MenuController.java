@@ -1,15 +1,20 @@
 package com.example.todo.controller;
 
+import com.example.todo.cache.JsonResponseCache;
+import com.example.todo.cache.ResourceVersions;
 import com.example.todo.model.MenuItem;
 import com.example.todo.model.Order;
 import com.example.todo.service.MenuService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/menu")
@@ -19,25 +24,31 @@ public class MenuController {
     @Autowired
     private MenuService menuService;
     
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+    
     /**
-     * Get all menu items for a restaurant
+     * Get all menu items for a restaurant; answers If-None-Match with 304 while the menu is unchanged
      */
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByRestaurant(@PathVariable String restaurantId) {
-        List<MenuItem> menuItems = menuService.getMenuItemsByRestaurant(restaurantId);
-        return ResponseEntity.ok(menuItems);
+    public void getMenuItemsByRestaurant(@PathVariable String restaurantId, ServletWebRequest request) throws IOException {
+        writeMenu(restaurantId, "available", () -> menuService.getMenuItemsByRestaurant(restaurantId), request);
     }
     
     /**
      * Get menu items by restaurant and meal type
      */
     @GetMapping("/restaurant/{restaurantId}/meal-type/{mealType}")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByRestaurantAndMealType(
+    public void getMenuItemsByRestaurantAndMealType(
             @PathVariable String restaurantId, 
-            @PathVariable Order.MealType mealType) {
+            @PathVariable Order.MealType mealType,
+            ServletWebRequest request) throws IOException {
         
-        List<MenuItem> menuItems = menuService.getMenuItemsByRestaurantAndMealType(restaurantId, mealType);
-        return ResponseEntity.ok(menuItems);
+        writeMenu(restaurantId, "meal:" + mealType,
+                () -> menuService.getMenuItemsByRestaurantAndMealType(restaurantId, mealType), request);
     }
     
     /**
@@ -95,11 +106,16 @@ public class MenuController {
     }
     
     /**
-     * Search menu items by name
+     * Search menu items, ranked by relevance
      */
     @GetMapping("/search")
-    public ResponseEntity<List<MenuItem>> searchMenuItems(@RequestParam String name) {
-        List<MenuItem> menuItems = menuService.searchMenuItemsByName(name);
+    public ResponseEntity<List<MenuItem>> searchMenuItems(
+            @RequestParam String name,
+            @RequestParam(required = false) String restaurantId,
+            @RequestParam(required = false) String mealType,
+            @RequestParam(required = false) Integer limit) {
+        
+        List<MenuItem> menuItems = menuService.searchMenuItems(name, restaurantId, mealType, limit);
         return ResponseEntity.ok(menuItems);
     }
     
@@ -109,9 +125,11 @@ public class MenuController {
     @GetMapping("/search/restaurant/{restaurantId}")
     public ResponseEntity<List<MenuItem>> searchMenuItemsByRestaurant(
             @PathVariable String restaurantId, 
-            @RequestParam String name) {
+            @RequestParam String name,
+            @RequestParam(required = false) String mealType,
+            @RequestParam(required = false) Integer limit) {
         
-        List<MenuItem> menuItems = menuService.searchMenuItemsByRestaurantAndName(restaurantId, name);
+        List<MenuItem> menuItems = menuService.searchMenuItems(name, restaurantId, mealType, limit);
         return ResponseEntity.ok(menuItems);
     }
     
@@ -128,12 +146,13 @@ public class MenuController {
      * Get menu items by restaurant and category
      */
     @GetMapping("/restaurant/{restaurantId}/category/{category}")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByRestaurantAndCategory(
+    public void getMenuItemsByRestaurantAndCategory(
             @PathVariable String restaurantId, 
-            @PathVariable String category) {
+            @PathVariable String category,
+            ServletWebRequest request) throws IOException {
         
-        List<MenuItem> menuItems = menuService.getMenuItemsByRestaurantAndCategory(restaurantId, category);
-        return ResponseEntity.ok(menuItems);
+        writeMenu(restaurantId, "category:" + category,
+                () -> menuService.getMenuItemsByRestaurantAndCategory(restaurantId, category), request);
     }
     
     /**
@@ -262,13 +281,19 @@ public class MenuController {
             @RequestParam(required = false) Boolean isVegetarian,
             @RequestParam(required = false) Boolean isVegan,
             @RequestParam(required = false) Boolean isSpicy,
-            @RequestParam(required = false) Integer spiceLevel) {
-        
-        List<MenuItem> menuItems = menuService.getMenuItemsByCriteria(
-                restaurantId, mealTypes, minPrice, maxPrice, category, tags, 
-                isVegetarian, isVegan, isSpicy, spiceLevel);
+            @RequestParam(required = false) Integer spiceLevel,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortDirection,
+            @RequestParam(required = false) Integer limit) {
         
-        return ResponseEntity.ok(menuItems);
+        try {
+            List<MenuItem> menuItems = menuService.getMenuItemsByCriteria(
+                    restaurantId, mealTypes, minPrice, maxPrice, category, tags, 
+                    isVegetarian, isVegan, isSpicy, spiceLevel, sortBy, sortDirection, limit);
+            return ResponseEntity.ok(menuItems);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     /**
@@ -279,4 +304,11 @@ public class MenuController {
         MenuService.MenuItemStats stats = menuService.getMenuItemStats(id);
         return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
     }
+    
+    // Serve a menu view from the pre-encoded response cache, keyed by the restaurant's menu version
+    private void writeMenu(String restaurantId, String view, Supplier<List<MenuItem>> loader,
+                           ServletWebRequest request) throws IOException {
+        jsonResponseCache.write(JsonResponseCache.menuGroup(restaurantId), view,
+                resourceVersions.menuETag(restaurantId), loader, request);
+    }
 }
@@ -1,13 +1,22 @@
 package com.example.todo.controller;
 
+import com.example.todo.cache.JsonResponseCache;
+import com.example.todo.cache.MenuCatalogCache;
+import com.example.todo.events.OrderEventBroadcaster;
+import com.example.todo.events.RestaurantOrderFeed;
+import com.example.todo.monitoring.LatencyRecorder;
 import com.example.todo.monitoring.MemoryMonitoringService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,10 +30,25 @@ import java.util.Map;
 public class MonitoringController {
 
     private final MemoryMonitoringService memoryMonitoringService;
+    private final MenuCatalogCache menuCatalogCache;
+    private final JsonResponseCache jsonResponseCache;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final RestaurantOrderFeed restaurantOrderFeed;
+    private final LatencyRecorder latencyRecorder;
 
     @Autowired
-    public MonitoringController(MemoryMonitoringService memoryMonitoringService) {
+    public MonitoringController(MemoryMonitoringService memoryMonitoringService,
+                                MenuCatalogCache menuCatalogCache,
+                                JsonResponseCache jsonResponseCache,
+                                OrderEventBroadcaster orderEventBroadcaster,
+                                RestaurantOrderFeed restaurantOrderFeed,
+                                LatencyRecorder latencyRecorder) {
         this.memoryMonitoringService = memoryMonitoringService;
+        this.menuCatalogCache = menuCatalogCache;
+        this.jsonResponseCache = jsonResponseCache;
+        this.orderEventBroadcaster = orderEventBroadcaster;
+        this.restaurantOrderFeed = restaurantOrderFeed;
+        this.latencyRecorder = latencyRecorder;
     }
 
     /**
@@ -35,6 +59,20 @@ public class MonitoringController {
         return memoryMonitoringService.getDetailedMemoryStats();
     }
 
+    /**
+     * Get sampled JVM telemetry (heap, allocation rate, GC pauses, threads, CPU) over a window
+     * such as 15m, 1h or 300 (seconds); defaults to everything retained
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<Map<String, Object>> getTimeSeries(@RequestParam(required = false) String window) {
+        try {
+            return ResponseEntity.ok(memoryMonitoringService.getTimeSeries(
+                    window != null ? DurationStyle.detectAndParse(window, ChronoUnit.SECONDS) : null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get garbage collection statistics
      */
@@ -56,6 +94,37 @@ public class MonitoringController {
         return gcStats;
     }
 
+    /**
+     * Get application cache statistics (hits, misses, evictions)
+     */
+    @GetMapping("/cache")
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> cacheStats = new HashMap<>();
+        cacheStats.put("menu_catalog", menuCatalogCache.getStats());
+        cacheStats.put("json_responses", jsonResponseCache.getStats());
+        cacheStats.put("timestamp", System.currentTimeMillis());
+        return cacheStats;
+    }
+
+    /**
+     * Get live order event subscription statistics
+     */
+    @GetMapping("/events")
+    public Map<String, Object> getEventStats() {
+        Map<String, Object> eventStats = new HashMap<>(orderEventBroadcaster.getStats());
+        eventStats.put("restaurant_feeds", restaurantOrderFeed.getActiveFeedCount());
+        return eventStats;
+    }
+
+    /**
+     * Get p50/p95/p99 latency per HTTP route and per MongoDB collection, command and calling
+     * repository method over the last 1, 5 and 15 minutes, slowest first
+     */
+    @GetMapping("/latency")
+    public Map<String, Object> getLatencyStats() {
+        return latencyRecorder.getLatencyStats();
+    }
+
     /**
      * Get application health status for MCP monitoring
      */
@@ -88,6 +157,8 @@ public class MonitoringController {
         overview.put("memory", getMemoryStats());
         overview.put("gc", getGCStats());
         overview.put("health", getHealthStatus());
+        overview.put("cache", getCacheStats());
+        overview.put("events", getEventStats());
         
         // Add JVM info
         Map<String, Object> jvmInfo = new HashMap<>();
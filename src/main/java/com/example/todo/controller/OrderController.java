@@ -1,36 +1,74 @@
 package com.example.todo.controller;
 
+import com.example.todo.events.OrderEventBroadcaster;
+import com.example.todo.events.RestaurantOrderFeed;
 import com.example.todo.model.Order;
+import com.example.todo.model.OrderSummary;
+import com.example.todo.service.OrderCapacityService;
 import com.example.todo.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/orders")
 @CrossOrigin(origins = "*")
 public class OrderController {
     
+    private static final int MAX_BATCH_SIZE = 500;
+    
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private OrderEventBroadcaster orderEventBroadcaster;
+    
+    @Autowired
+    private RestaurantOrderFeed restaurantOrderFeed;
+    
     /**
      * Create a new order
      */
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
+    public ResponseEntity<?> createOrder(@RequestBody Order order) {
         try {
             Order createdOrder = orderService.createOrder(order);
             return ResponseEntity.ok(createdOrder);
+        } catch (OrderCapacityService.SlotFullException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "SLOT_FULL", "message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    /**
+     * Create a batch of orders in one request; the response reports success or failure per order
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<OrderService.BatchOrderResult> createOrders(@RequestBody List<Order> orders) {
+        if (orders.isEmpty() || orders.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orderService.createOrders(orders));
+    }
+    
     /**
      * Get order by ID
      */
@@ -41,6 +79,37 @@ public class OrderController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Subscribe to live status and payment changes of an order (Server-Sent Events)
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToOrder(@PathVariable String id) {
+        return orderEventBroadcaster.subscribeToOrder(id, orderService::getOrderById)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Subscribe to live changes of every order placed by a user (Server-Sent Events)
+     */
+    @GetMapping(value = "/user/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToUserOrders(@PathVariable String userId) {
+        return orderEventBroadcaster.subscribeToUser(userId);
+    }
+    
+    /**
+     * Live order feed for a restaurant's kitchen screen (Server-Sent Events backed by a change stream);
+     * 503 when MongoDB is not a replica set
+     */
+    @GetMapping(value = "/restaurant/{restaurantId}/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToRestaurantFeed(@PathVariable String restaurantId) {
+        try {
+            return ResponseEntity.ok(restaurantOrderFeed.subscribe(restaurantId));
+        } catch (RestaurantOrderFeed.FeedUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     /**
      * Get order by order number
      */
@@ -55,69 +124,93 @@ public class OrderController {
      * Get orders by user
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUser(@PathVariable String userId) {
-        List<Order> orders = orderService.getOrdersByUser(userId);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getOrdersByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        
+        return listOrders(OrderService.OrderFilter.byUser(userId), cursor, limit, stream);
     }
     
     /**
      * Get orders by restaurant
      */
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<Order>> getOrdersByRestaurant(@PathVariable String restaurantId) {
-        List<Order> orders = orderService.getOrdersByRestaurant(restaurantId);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getOrdersByRestaurant(
+            @PathVariable String restaurantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        
+        return listOrders(OrderService.OrderFilter.byRestaurant(restaurantId), cursor, limit, stream);
     }
     
     /**
      * Get orders by status
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable Order.OrderStatus status) {
-        List<Order> orders = orderService.getOrdersByStatus(status);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getOrdersByStatus(
+            @PathVariable Order.OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        
+        return listOrders(OrderService.OrderFilter.byStatus(status), cursor, limit, stream);
     }
     
     /**
      * Get orders by user and status
      */
     @GetMapping("/user/{userId}/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByUserAndStatus(
-            @PathVariable String userId, 
-            @PathVariable Order.OrderStatus status) {
+    public ResponseEntity<?> getOrdersByUserAndStatus(
+            @PathVariable String userId,
+            @PathVariable Order.OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
         
-        List<Order> orders = orderService.getOrdersByUserAndStatus(userId, status);
-        return ResponseEntity.ok(orders);
+        return listOrders(OrderService.OrderFilter.byUserAndStatus(userId, status), cursor, limit, stream);
     }
     
     /**
      * Get orders by restaurant and status
      */
     @GetMapping("/restaurant/{restaurantId}/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByRestaurantAndStatus(
-            @PathVariable String restaurantId, 
-            @PathVariable Order.OrderStatus status) {
+    public ResponseEntity<?> getOrdersByRestaurantAndStatus(
+            @PathVariable String restaurantId,
+            @PathVariable Order.OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
         
-        List<Order> orders = orderService.getOrdersByRestaurantAndStatus(restaurantId, status);
-        return ResponseEntity.ok(orders);
+        return listOrders(OrderService.OrderFilter.byRestaurantAndStatus(restaurantId, status), cursor, limit, stream);
     }
     
     /**
      * Get orders by meal type
      */
     @GetMapping("/meal-type/{mealType}")
-    public ResponseEntity<List<Order>> getOrdersByMealType(@PathVariable Order.MealType mealType) {
-        List<Order> orders = orderService.getOrdersByMealType(mealType);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getOrdersByMealType(
+            @PathVariable Order.MealType mealType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        
+        return listOrders(OrderService.OrderFilter.byMealType(mealType), cursor, limit, stream);
     }
     
     /**
      * Get recent orders by user
      */
     @GetMapping("/user/{userId}/recent")
-    public ResponseEntity<List<Order>> getRecentOrdersByUser(@PathVariable String userId) {
-        List<Order> orders = orderService.getRecentOrdersByUser(userId);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getRecentOrdersByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        
+        return listOrders(OrderService.OrderFilter.byUser(userId), cursor, limit, stream);
     }
     
     /**
@@ -190,56 +283,70 @@ public class OrderController {
      * Get orders by date range
      */
     @GetMapping("/date-range")
-    public ResponseEntity<List<Order>> getOrdersByDateRange(
-            @RequestParam LocalDateTime startDate, 
-            @RequestParam LocalDateTime endDate) {
+    public ResponseEntity<?> getOrdersByDateRange(
+            @RequestParam LocalDateTime startDate,
+            @RequestParam LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
         
-        List<Order> orders = orderService.getOrdersByDateRange(startDate, endDate);
-        return ResponseEntity.ok(orders);
+        return listOrders(OrderService.OrderFilter.byDateRange(startDate, endDate), cursor, limit, stream);
     }
     
     /**
      * Get orders by user and date range
      */
     @GetMapping("/user/{userId}/date-range")
-    public ResponseEntity<List<Order>> getOrdersByUserAndDateRange(
+    public ResponseEntity<?> getOrdersByUserAndDateRange(
             @PathVariable String userId,
-            @RequestParam LocalDateTime startDate, 
-            @RequestParam LocalDateTime endDate) {
+            @RequestParam LocalDateTime startDate,
+            @RequestParam LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
         
-        List<Order> orders = orderService.getOrdersByUserAndDateRange(userId, startDate, endDate);
-        return ResponseEntity.ok(orders);
+        return listOrders(OrderService.OrderFilter.byUserAndDateRange(userId, startDate, endDate), cursor, limit, stream);
     }
     
     /**
      * Get orders by restaurant and date range
      */
     @GetMapping("/restaurant/{restaurantId}/date-range")
-    public ResponseEntity<List<Order>> getOrdersByRestaurantAndDateRange(
+    public ResponseEntity<?> getOrdersByRestaurantAndDateRange(
             @PathVariable String restaurantId,
-            @RequestParam LocalDateTime startDate, 
-            @RequestParam LocalDateTime endDate) {
+            @RequestParam LocalDateTime startDate,
+            @RequestParam LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
         
-        List<Order> orders = orderService.getOrdersByRestaurantAndDateRange(restaurantId, startDate, endDate);
-        return ResponseEntity.ok(orders);
+        return listOrders(OrderService.OrderFilter.byRestaurantAndDateRange(restaurantId, startDate, endDate), cursor, limit, stream);
     }
     
     /**
      * Get orders by delivery person
      */
     @GetMapping("/delivery-person/{deliveryPersonPhone}")
-    public ResponseEntity<List<Order>> getOrdersByDeliveryPerson(@PathVariable String deliveryPersonPhone) {
-        List<Order> orders = orderService.getOrdersByDeliveryPerson(deliveryPersonPhone);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getOrdersByDeliveryPerson(
+            @PathVariable String deliveryPersonPhone,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        
+        return listOrders(OrderService.OrderFilter.byDeliveryPerson(deliveryPersonPhone), cursor, limit, stream);
     }
     
     /**
      * Get orders by delivery area
      */
     @GetMapping("/delivery-area/{pincode}")
-    public ResponseEntity<List<Order>> getOrdersByDeliveryArea(@PathVariable String pincode) {
-        List<Order> orders = orderService.getOrdersByDeliveryArea(pincode);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getOrdersByDeliveryArea(
+            @PathVariable String pincode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        
+        return listOrders(OrderService.OrderFilter.byDeliveryArea(pincode), cursor, limit, stream);
     }
     
     /**
@@ -259,4 +366,46 @@ public class OrderController {
         OrderService.UserOrderStats stats = orderService.getUserOrderStats(userId);
         return ResponseEntity.ok(stats);
     }
+    
+    /**
+     * Rebuild user order statistics from the orders collection
+     */
+    @PostMapping("/user-stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildUserOrderStats() {
+        try {
+            int users = orderService.rebuildUserOrderStats();
+            return ResponseEntity.ok(Map.of("users", users));
+        } catch (OrderService.RebuildInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "REBUILD_IN_PROGRESS", "message", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Render an order list as order summaries: a keyset page (the first DEFAULT_PAGE_SIZE orders unless
+     * cursor or limit say otherwise) or an NDJSON stream written as orders come off the MongoDB cursor
+     * (when stream=true). Either way a request holds at most one page in memory.
+     * Only GET /{id} returns the complete order document.
+     */
+    private ResponseEntity<?> listOrders(OrderService.OrderFilter filter, String cursor, Integer limit, boolean stream) {
+        if (stream) {
+            StreamingResponseBody body = outputStream -> writeOrders(filter, outputStream);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+        
+        try {
+            return ResponseEntity.ok(orderService.getOrderPage(filter, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    private void writeOrders(OrderService.OrderFilter filter, OutputStream outputStream) throws IOException {
+        try (Stream<OrderSummary> orders = orderService.streamOrders(filter)) {
+            Iterator<OrderSummary> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+            }
+        }
+    }
 }
@@ -0,0 +1,157 @@
+package com.example.todo.controller;
+
+import com.example.todo.model.MenuItem;
+import com.example.todo.model.Order;
+import com.example.todo.model.OrderSummary;
+import com.example.todo.model.Restaurant;
+import com.example.todo.repository.reactive.ReactiveMenuItemRepository;
+import com.example.todo.repository.reactive.ReactiveOrderRepository;
+import com.example.todo.repository.reactive.ReactiveRestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking read endpoints for restaurants, menus and orders.
+ * Queries run on the reactive MongoDB driver and lists are streamed element by element as NDJSON
+ * (or SSE with Accept: text/event-stream). Documents are pulled from the cursor only as fast as the
+ * client reads them, so a slow client holds neither a thread nor the full result in memory.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = "*")
+public class ReactiveQueryController {
+
+    // Documents requested from the driver ahead of what the client has consumed
+    private static final int PREFETCH = 64;
+
+    @Autowired
+    private ReactiveRestaurantRepository reactiveRestaurantRepository;
+
+    @Autowired
+    private ReactiveMenuItemRepository reactiveMenuItemRepository;
+
+    @Autowired
+    private ReactiveOrderRepository reactiveOrderRepository;
+
+    /**
+     * Stream all active restaurants
+     */
+    @GetMapping(value = "/restaurants", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Restaurant> getAllRestaurants() {
+        return reactiveRestaurantRepository.findByIsActiveTrue().limitRate(PREFETCH);
+    }
+
+    /**
+     * Get restaurant by ID
+     */
+    @GetMapping("/restaurants/{id}")
+    public Mono<ResponseEntity<Restaurant>> getRestaurantById(@PathVariable String id) {
+        return reactiveRestaurantRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream active restaurants by category
+     */
+    @GetMapping(value = "/restaurants/category/{category}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Restaurant> getRestaurantsByCategory(@PathVariable String category) {
+        return reactiveRestaurantRepository.findByCategoriesContainingAndIsActiveTrue(category).limitRate(PREFETCH);
+    }
+
+    /**
+     * Stream active restaurants by delivery area
+     */
+    @GetMapping(value = "/restaurants/delivery-area/{pincode}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Restaurant> getRestaurantsByDeliveryArea(@PathVariable String pincode) {
+        return reactiveRestaurantRepository.findByDeliveryAreasContainingAndIsActiveTrue(pincode).limitRate(PREFETCH);
+    }
+
+    /**
+     * Stream active restaurants by minimum rating
+     */
+    @GetMapping(value = "/restaurants/rating/{minRating}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Restaurant> getRestaurantsByRating(@PathVariable double minRating) {
+        return reactiveRestaurantRepository.findByRatingGreaterThanEqualAndIsActiveTrue(minRating).limitRate(PREFETCH);
+    }
+
+    /**
+     * Stream the available menu of a restaurant
+     */
+    @GetMapping(value = "/menu/restaurant/{restaurantId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<MenuItem> getMenuItemsByRestaurant(@PathVariable String restaurantId) {
+        return reactiveMenuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId).limitRate(PREFETCH);
+    }
+
+    /**
+     * Stream menu items by restaurant and meal type
+     */
+    @GetMapping(value = "/menu/restaurant/{restaurantId}/meal-type/{mealType}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<MenuItem> getMenuItemsByRestaurantAndMealType(@PathVariable String restaurantId,
+                                                              @PathVariable Order.MealType mealType) {
+        return reactiveMenuItemRepository.findByRestaurantIdAndMealTypesContaining(restaurantId, mealType.toString()).limitRate(PREFETCH);
+    }
+
+    /**
+     * Stream menu items by restaurant and category
+     */
+    @GetMapping(value = "/menu/restaurant/{restaurantId}/category/{category}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<MenuItem> getMenuItemsByRestaurantAndCategory(@PathVariable String restaurantId,
+                                                              @PathVariable String category) {
+        return reactiveMenuItemRepository.findByRestaurantIdAndCategory(restaurantId, category).limitRate(PREFETCH);
+    }
+
+    /**
+     * Get menu item by ID
+     */
+    @GetMapping("/menu/{id}")
+    public Mono<ResponseEntity<MenuItem>> getMenuItemById(@PathVariable String id) {
+        return reactiveMenuItemRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get order by ID
+     */
+    @GetMapping("/orders/{id}")
+    public Mono<ResponseEntity<Order>> getOrderById(@PathVariable String id) {
+        return reactiveOrderRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get order by order number
+     */
+    @GetMapping("/orders/order-number/{orderNumber}")
+    public Mono<ResponseEntity<Order>> getOrderByOrderNumber(@PathVariable String orderNumber) {
+        return reactiveOrderRepository.findByOrderNumber(orderNumber)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream order summaries of a user, newest first
+     */
+    @GetMapping(value = "/orders/user/{userId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<OrderSummary> getOrdersByUser(@PathVariable String userId) {
+        return reactiveOrderRepository.findByUserIdOrderByOrderTimeDesc(userId).limitRate(PREFETCH);
+    }
+
+    /**
+     * Stream order summaries of a restaurant, optionally in one status, newest first
+     */
+    @GetMapping(value = "/orders/restaurant/{restaurantId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<OrderSummary> getOrdersByRestaurant(@PathVariable String restaurantId,
+                                                    @RequestParam(required = false) Order.OrderStatus status) {
+        Flux<OrderSummary> orders = status != null
+                ? reactiveOrderRepository.findByRestaurantIdAndStatusOrderByOrderTimeDesc(restaurantId, status)
+                : reactiveOrderRepository.findByRestaurantIdOrderByOrderTimeDesc(restaurantId);
+        return orders.limitRate(PREFETCH);
+    }
+}
@@ -1,13 +1,24 @@
 package com.example.todo.controller;
 
+import com.example.todo.cache.JsonResponseCache;
+import com.example.todo.cache.ResourceVersions;
 import com.example.todo.model.Order;
 import com.example.todo.model.Restaurant;
+import com.example.todo.search.RestaurantAutocompleteIndex;
+import com.example.todo.service.OrderCapacityService;
 import com.example.todo.service.RestaurantService;
 import com.example.todo.service.TimeBasedOrderingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,22 +33,37 @@ public class RestaurantController {
     @Autowired
     private TimeBasedOrderingService timeBasedOrderingService;
     
+    @Autowired
+    private OrderCapacityService orderCapacityService;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+    
     /**
-     * Get all restaurants
+     * Get all restaurants; answers If-None-Match with 304 while no restaurant has changed
      */
     @GetMapping
-    public ResponseEntity<List<Restaurant>> getAllRestaurants() {
-        List<Restaurant> restaurants = restaurantService.getAllRestaurants();
-        return ResponseEntity.ok(restaurants);
+    public void getAllRestaurants(ServletWebRequest request) throws IOException {
+        jsonResponseCache.write(JsonResponseCache.RESTAURANTS_GROUP, "all", resourceVersions.restaurantListETag(),
+                restaurantService::getAllRestaurants, request);
     }
     
     /**
-     * Get restaurant by ID
+     * Get restaurant by ID; answers If-None-Match with 304 without reading the document
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable String id) {
+    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable String id, WebRequest request) {
+        String currentETag = resourceVersions.restaurantETag(id);
+        if (currentETag != null && request.checkNotModified(currentETag)) {
+            return notModified(currentETag);
+        }
         Optional<Restaurant> restaurant = restaurantService.getRestaurantById(id);
-        return restaurant.map(ResponseEntity::ok)
+        return restaurant.map(found -> found.getVersion() != null
+                        ? withETag(resourceVersions.restaurantETag(found.getVersion()), found)
+                        : ResponseEntity.ok(found))
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -81,6 +107,17 @@ public class RestaurantController {
         return ResponseEntity.ok(restaurants);
     }
     
+    /**
+     * Autocomplete restaurant names, optionally within a delivery pincode
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<RestaurantAutocompleteIndex.Suggestion>> autocompleteRestaurants(
+            @RequestParam String q,
+            @RequestParam(required = false) String pincode,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(restaurantService.autocompleteRestaurants(q, pincode, limit));
+    }
+    
     /**
      * Search restaurants by name and location
      */
@@ -96,17 +133,32 @@ public class RestaurantController {
      * Get restaurants by category
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Restaurant>> getRestaurantsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<Restaurant>> getRestaurantsByCategory(@PathVariable String category, WebRequest request) {
+        String etag = resourceVersions.restaurantListETag();
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
         List<Restaurant> restaurants = restaurantService.getRestaurantsByCategory(category);
-        return ResponseEntity.ok(restaurants);
+        return withETag(etag, restaurants);
     }
     
     /**
      * Get restaurants by delivery area
      */
     @GetMapping("/delivery-area/{pincode}")
-    public ResponseEntity<List<Restaurant>> getRestaurantsByDeliveryArea(@PathVariable String pincode) {
-        List<Restaurant> restaurants = restaurantService.getRestaurantsByDeliveryArea(pincode);
+    public void getRestaurantsByDeliveryArea(@PathVariable String pincode, ServletWebRequest request) throws IOException {
+        jsonResponseCache.write(JsonResponseCache.RESTAURANTS_GROUP, "area:" + pincode, resourceVersions.restaurantListETag(),
+                () -> restaurantService.getRestaurantsByDeliveryArea(pincode), request);
+    }
+    
+    /**
+     * Get restaurants delivering to an area whose ordering window is open right now
+     */
+    @GetMapping("/delivery-area/{pincode}/open")
+    public ResponseEntity<List<Restaurant>> getRestaurantsOpenForDelivery(
+            @PathVariable String pincode,
+            @RequestParam(required = false) Order.MealType mealType) {
+        List<Restaurant> restaurants = restaurantService.getRestaurantsOpenForDelivery(pincode, mealType);
         return ResponseEntity.ok(restaurants);
     }
     
@@ -114,9 +166,13 @@ public class RestaurantController {
      * Get restaurants by rating
      */
     @GetMapping("/rating/{minRating}")
-    public ResponseEntity<List<Restaurant>> getRestaurantsByRating(@PathVariable double minRating) {
+    public ResponseEntity<List<Restaurant>> getRestaurantsByRating(@PathVariable double minRating, WebRequest request) {
+        String etag = resourceVersions.restaurantListETag();
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
         List<Restaurant> restaurants = restaurantService.getRestaurantsByRating(minRating);
-        return ResponseEntity.ok(restaurants);
+        return withETag(etag, restaurants);
     }
     
     /**
@@ -163,6 +219,18 @@ public class RestaurantController {
         return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
     }
     
+    /**
+     * Get live order capacity occupancy per meal slot for a delivery date (defaults to today)
+     */
+    @GetMapping("/{id}/capacity")
+    public ResponseEntity<List<OrderCapacityService.SlotOccupancy>> getCapacityOccupancy(
+            @PathVariable String id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return restaurantService.getRestaurantById(id)
+                .map(restaurant -> ResponseEntity.ok(orderCapacityService.getOccupancy(restaurant, date)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     /**
      * Update restaurant rating
      */
@@ -218,4 +286,13 @@ public class RestaurantController {
         TimeBasedOrderingService.TimeRemaining timeRemaining = timeBasedOrderingService.getTimeRemainingForOrdering(mealType);
         return ResponseEntity.ok(timeRemaining);
     }
+    
+    // Full response with a strong ETag; clients must revalidate before reusing it
+    private static <T> ResponseEntity<T> withETag(String etag, T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(body);
+    }
+    
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).eTag(etag).build();
+    }
 }
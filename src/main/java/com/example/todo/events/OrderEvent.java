@@ -0,0 +1,81 @@
+package com.example.todo.events;
+
+import com.example.todo.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Snapshot of the live fields of an order, pushed to subscribers whenever the order changes
+ */
+public class OrderEvent {
+    private String orderId;
+    private String orderNumber;
+    private String userId;
+    private String restaurantId;
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+    private BigDecimal totalAmount;
+    private LocalTime scheduledDeliveryTime;
+    private LocalDateTime actualDeliveryTime;
+    private String deliveryPersonName;
+    private String deliveryPersonPhone;
+    private Long version;
+    
+    public OrderEvent() {}
+    
+    public static OrderEvent from(Order order) {
+        OrderEvent event = new OrderEvent();
+        event.orderId = order.getId();
+        event.orderNumber = order.getOrderNumber();
+        event.userId = order.getUserId();
+        event.restaurantId = order.getRestaurantId();
+        event.status = order.getStatus();
+        event.paymentStatus = order.getPaymentStatus();
+        event.totalAmount = order.getTotalAmount();
+        event.scheduledDeliveryTime = order.getScheduledDeliveryTime();
+        event.actualDeliveryTime = order.getActualDeliveryTime();
+        event.deliveryPersonName = order.getDeliveryPersonName();
+        event.deliveryPersonPhone = order.getDeliveryPersonPhone();
+        event.version = order.getVersion();
+        return event;
+    }
+    
+    // Getters and Setters
+    public String getOrderId() { return orderId; }
+    public void setOrderId(String orderId) { this.orderId = orderId; }
+    
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    public String getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(String restaurantId) { this.restaurantId = restaurantId; }
+    
+    public Order.OrderStatus getStatus() { return status; }
+    public void setStatus(Order.OrderStatus status) { this.status = status; }
+    
+    public Order.PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(Order.PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public LocalTime getScheduledDeliveryTime() { return scheduledDeliveryTime; }
+    public void setScheduledDeliveryTime(LocalTime scheduledDeliveryTime) { this.scheduledDeliveryTime = scheduledDeliveryTime; }
+    
+    public LocalDateTime getActualDeliveryTime() { return actualDeliveryTime; }
+    public void setActualDeliveryTime(LocalDateTime actualDeliveryTime) { this.actualDeliveryTime = actualDeliveryTime; }
+    
+    public String getDeliveryPersonName() { return deliveryPersonName; }
+    public void setDeliveryPersonName(String deliveryPersonName) { this.deliveryPersonName = deliveryPersonName; }
+    
+    public String getDeliveryPersonPhone() { return deliveryPersonPhone; }
+    public void setDeliveryPersonPhone(String deliveryPersonPhone) { this.deliveryPersonPhone = deliveryPersonPhone; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
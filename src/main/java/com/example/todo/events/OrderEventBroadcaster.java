@@ -0,0 +1,240 @@
+package com.example.todo.events;
+
+import com.example.todo.config.ThreadingConfig;
+import com.example.todo.model.Order;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Fan-out registry of Server-Sent Event subscribers for live order updates.
+ * Subscriptions are async servlet responses, so an idle connection holds no request thread.
+ * The shared dispatcher and heartbeat threads never write to a socket themselves: they only
+ * queue events on each subscriber's {@link SseEventQueue}, which a small fixed pool of writer
+ * threads drains (a virtual thread per write in virtual-thread mode). A subscriber whose queue
+ * backs up, or whose write has been stuck longer than the send timeout, is dropped, so one slow
+ * client cannot delay delivery or heartbeats to anybody else.
+ */
+@Component
+public class OrderEventBroadcaster {
+
+    private static final String EVENT_NAME = "order";
+
+    private final Map<String, Set<Subscriber>> orderSubscribers = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> userSubscribers = new ConcurrentHashMap<>();
+
+    private final long emitterTimeoutMillis;
+    private final int maxPendingEvents;
+    private final long sendTimeoutMillis;
+    private final Executor dispatcher;
+    private final Executor writers;
+    private final ScheduledExecutorService heartbeat;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder slowDropped = new LongAdder();
+
+    public OrderEventBroadcaster(@Value("${order.events.emitter-timeout-ms:3600000}") long emitterTimeoutMillis,
+                                 @Value("${order.events.heartbeat-seconds:25}") long heartbeatSeconds,
+                                 @Value("${order.events.dispatcher-threads:2}") int dispatcherThreads,
+                                 @Value("${order.events.writer-threads:8}") int writerThreads,
+                                 @Value("${order.events.max-pending-events:64}") int maxPendingEvents,
+                                 @Value("${order.events.send-timeout-ms:10000}") long sendTimeoutMillis,
+                                 ThreadingConfig threadingConfig) {
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxPendingEvents = maxPendingEvents;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.dispatcher = threadingConfig.newExecutor("order-events-", dispatcherThreads);
+        // Fixed size however many subscribers there are; a stuck write holds one thread until the client is dropped
+        this.writers = threadingConfig.newExecutor("order-events-writer-", Math.max(1, writerThreads));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(ThreadingConfig.daemonThreads("order-events-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Subscribe to changes of a single order, starting with its current state, or return empty if
+     * the order does not exist. The subscription is registered before the order is loaded, so a
+     * change committed in between is delivered rather than lost.
+     */
+    public Optional<SseEmitter> subscribeToOrder(String orderId, Function<String, Optional<Order>> orderLoader) {
+        Subscriber subscriber = subscribe(orderSubscribers, orderId);
+        Optional<Order> order = orderLoader.apply(orderId);
+        if (order.isEmpty()) {
+            remove(subscriber);
+            subscriber.queue.complete();
+            return Optional.empty();
+        }
+        // Skipped by the queue if a newer change was published meanwhile
+        OrderEvent event = OrderEvent.from(order.get());
+        subscriber.queue.enqueue(event.getOrderId(), versionOf(event), toEvent(event));
+        return Optional.of(subscriber.queue.getEmitter());
+    }
+
+    /**
+     * Subscribe to changes of every order placed by a user
+     */
+    public SseEmitter subscribeToUser(String userId) {
+        return subscribe(userSubscribers, userId).queue.getEmitter();
+    }
+
+    /**
+     * Push the current state of an order to its subscribers without blocking the caller
+     */
+    public void publish(Order order) {
+        if (orderSubscribers.isEmpty() && userSubscribers.isEmpty()) {
+            return;
+        }
+        OrderEvent event = OrderEvent.from(order);
+        published.increment();
+        dispatcher.execute(() -> {
+            Set<ResponseBodyEmitter.DataWithMediaType> data = toEvent(event);
+            broadcast(orderSubscribers, event.getOrderId(), event, data);
+            broadcast(userSubscribers, event.getUserId(), event, data);
+        });
+    }
+
+    /**
+     * Get subscription statistics for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("connections", connections.get());
+        stats.put("subscribed_orders", orderSubscribers.size());
+        stats.put("subscribed_users", userSubscribers.size());
+        stats.put("published_count", published.sum());
+        stats.put("delivered_count", delivered.sum());
+        stats.put("dropped_count", dropped.sum());
+        stats.put("slow_dropped_count", slowDropped.sum());
+        stats.put("max_pending_events", maxPendingEvents);
+        stats.put("timestamp", System.currentTimeMillis());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        if (writers instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        orderSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.queue.complete()));
+        userSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.queue.complete()));
+    }
+
+    private Subscriber subscribe(Map<String, Set<Subscriber>> registry, String key) {
+        Subscriber subscriber = new Subscriber(registry, key, new SseEmitter(emitterTimeoutMillis));
+        // Added inside compute so a concurrent removal of the last subscriber cannot orphan it
+        registry.compute(key, (k, subscribers) -> {
+            Set<Subscriber> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        connections.incrementAndGet();
+
+        Runnable unsubscribe = () -> remove(subscriber);
+        SseEmitter emitter = subscriber.queue.getEmitter();
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return subscriber;
+    }
+
+    private void remove(Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        subscriber.registry.computeIfPresent(subscriber.key, (k, subscribers) -> {
+            removed[0] = subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        if (removed[0]) {
+            connections.decrementAndGet();
+        }
+    }
+
+    private void broadcast(Map<String, Set<Subscriber>> registry, String key, OrderEvent event,
+                           Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        Set<Subscriber> subscribers = key == null ? null : registry.get(key);
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.queue.enqueue(event.getOrderId(), versionOf(event), data);
+        }
+    }
+
+    // Built once per event and shared by every subscriber's queue
+    private static Set<ResponseBodyEmitter.DataWithMediaType> toEvent(OrderEvent event) {
+        return SseEmitter.event()
+                .name(EVENT_NAME)
+                .id(event.getOrderId() + ":" + event.getVersion())
+                .data(event, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    static long versionOf(OrderEvent event) {
+        return event.getVersion() != null ? event.getVersion() : -1;
+    }
+
+    private void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        heartbeat(orderSubscribers, now);
+        heartbeat(userSubscribers, now);
+    }
+
+    private void heartbeat(Map<String, Set<Subscriber>> registry, long now) {
+        registry.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            if (subscriber.queue.isStalled(now, sendTimeoutMillis)) {
+                subscriber.queue.drop(true);
+            } else {
+                subscriber.queue.enqueueHeartbeat();
+            }
+        }));
+    }
+
+    // One connection, the registry entry it belongs to and its event queue
+    private class Subscriber implements SseEventQueue.Listener {
+        private final Map<String, Set<Subscriber>> registry;
+        private final String key;
+        private final SseEventQueue queue;
+
+        Subscriber(Map<String, Set<Subscriber>> registry, String key, SseEmitter emitter) {
+            this.registry = registry;
+            this.key = key;
+            this.queue = new SseEventQueue(emitter, writers, maxPendingEvents, this);
+        }
+
+        @Override
+        public void delivered() {
+            delivered.increment();
+        }
+
+        @Override
+        public void dropped(SseEventQueue queue, boolean slow) {
+            dropped.increment();
+            if (slow) {
+                slowDropped.increment();
+            }
+            remove(this);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.todo.events;
+
+import com.example.todo.config.ThreadingConfig;
+import com.example.todo.model.Order;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live order feed for restaurant kitchen screens, driven by a MongoDB change stream.
+ * One change stream on the orders collection is open while any screen is subscribed. It matches
+ * only orders of the subscribed restaurants on the server and is reopened from the last seen
+ * position when a screen for a new restaurant arrives. Changes are fanned out in memory by
+ * restaurantId onto each screen's {@link SseEventQueue}, so the single listener thread never
+ * writes to a socket and one slow screen cannot hold up the others. The resume token of the
+ * latest change is saved every few seconds, and a restarted feed continues from it instead of
+ * forcing screens to re-query.
+ * Change streams need MongoDB to run as a replica set (or sharded cluster); against a standalone
+ * server subscribing fails with FeedUnavailableException.
+ */
+@Component
+public class RestaurantOrderFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantOrderFeed.class);
+
+    private static final String EVENT_NAME = "order";
+    private static final String RESUME_TOKEN_COLLECTION = "order_feed_resume_tokens";
+    private static final String RESUME_TOKEN_ID = "orders";
+
+    // Server error codes for a resume token that has fallen off the oplog
+    private static final Set<Integer> RESUME_FAILED_CODES = Set.of(260, 280, 286);
+
+    private final MongoTemplate mongoTemplate;
+    private final Executor listenerExecutor;
+    private final Executor writers;
+    private final ScheduledExecutorService scheduler;
+    private final MessageListenerContainer container;
+    private final long emitterTimeoutMillis;
+    private final int maxPendingEvents;
+    private final long sendTimeoutMillis;
+    private final Duration maxResumeAge;
+
+    private final Map<String, Set<Screen>> subscribers = new ConcurrentHashMap<>();
+
+    // Guards starting and stopping the change stream
+    private final Object streamLock = new Object();
+    private Subscription subscription;
+    private long streamGeneration;
+    private Set<String> streamRestaurantIds = Set.of();
+
+    // Token of the latest change received, and whether it still has to be saved
+    private volatile BsonDocument latestResumeToken;
+    private volatile boolean resumeTokenDirty;
+
+    // Whether the connected deployment supports change streams; null until first checked
+    private volatile Boolean changeStreamsSupported;
+
+    public RestaurantOrderFeed(MongoTemplate mongoTemplate,
+                               @Value("${order.feed.emitter-timeout-ms:3600000}") long emitterTimeoutMillis,
+                               @Value("${order.feed.max-resume-age-minutes:60}") long maxResumeAgeMinutes,
+                               @Value("${order.feed.heartbeat-seconds:25}") long heartbeatSeconds,
+                               @Value("${order.feed.writer-threads:4}") int writerThreads,
+                               @Value("${order.feed.max-pending-events:64}") int maxPendingEvents,
+                               @Value("${order.feed.send-timeout-ms:10000}") long sendTimeoutMillis,
+                               @Value("${order.feed.resume-token-save-seconds:5}") long resumeTokenSaveSeconds,
+                               ThreadingConfig threadingConfig) {
+        this.mongoTemplate = mongoTemplate;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxPendingEvents = maxPendingEvents;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.maxResumeAge = Duration.ofMinutes(maxResumeAgeMinutes);
+
+        // The open change stream parks one thread on its cursor; a restarted stream queues behind the cancelled one
+        this.listenerExecutor = threadingConfig.newExecutor("restaurant-order-feed-", 1);
+        this.writers = threadingConfig.newExecutor("restaurant-order-feed-writer-", Math.max(1, writerThreads));
+        this.container = new DefaultMessageListenerContainer(mongoTemplate, listenerExecutor);
+        this.container.start();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(ThreadingConfig.daemonThreads("restaurant-order-feed-timer-"));
+        this.scheduler.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::saveResumeToken, resumeTokenSaveSeconds, resumeTokenSaveSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Subscribe a kitchen screen to the live orders of a restaurant, or throw FeedUnavailableException
+     * when MongoDB does not support change streams
+     */
+    public SseEmitter subscribe(String restaurantId) {
+        if (!isChangeStreamsSupported()) {
+            throw new FeedUnavailableException();
+        }
+
+        Screen screen = new Screen(restaurantId, new SseEmitter(emitterTimeoutMillis));
+        synchronized (streamLock) {
+            subscribers.computeIfAbsent(restaurantId, id -> ConcurrentHashMap.newKeySet()).add(screen);
+            if (subscription == null) {
+                startStream(resumePosition());
+            } else if (!streamRestaurantIds.contains(restaurantId)) {
+                // The server-side filter has to include the new restaurant; resume where the old stream stopped
+                stopStream();
+                startStream(resumePosition());
+            }
+        }
+
+        Runnable unsubscribe = () -> unsubscribe(screen);
+        SseEmitter emitter = screen.queue.getEmitter();
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    /**
+     * Number of restaurants with at least one subscribed screen
+     */
+    public int getActiveFeedCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        container.stop();
+        saveResumeToken();
+        subscribers.values().forEach(screens -> screens.forEach(screen -> screen.queue.complete()));
+        if (listenerExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        if (writers instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private boolean isChangeStreamsSupported() {
+        Boolean supported = changeStreamsSupported;
+        if (supported == null) {
+            // Replica set members report setName; mongos routers report msg "isdbgrid"
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            supported = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+            if (!supported) {
+                logger.warn("MongoDB is running standalone; restaurant order feeds need a replica set and are disabled");
+            }
+            changeStreamsSupported = supported;
+        }
+        return supported;
+    }
+
+    private void unsubscribe(Screen screen) {
+        synchronized (streamLock) {
+            subscribers.computeIfPresent(screen.restaurantId, (id, screens) -> {
+                screens.remove(screen);
+                return screens.isEmpty() ? null : screens;
+            });
+            // Last screen left; the saved token lets the next subscriber pick up from here. A restaurant
+            // that lost its screens stays in the filter until the stream is next reopened.
+            if (subscribers.isEmpty()) {
+                stopStream();
+                scheduler.execute(this::saveResumeToken);
+            }
+        }
+    }
+
+    // Callers hold streamLock
+    private void startStream(BsonDocument resumeToken) {
+        long generation = ++streamGeneration;
+        streamRestaurantIds = new HashSet<>(subscribers.keySet());
+        ChangeStreamRequest.ChangeStreamRequestBuilder<Order> builder = ChangeStreamRequest.builder(
+                        (Message<ChangeStreamDocument<Document>, Order> message) -> deliver(message))
+                .collection(mongoTemplate.getCollectionName(Order.class))
+                .filter(Aggregation.newAggregation(Aggregation.match(
+                        Criteria.where("operationType").in("insert", "update", "replace")
+                                .and("fullDocument.restaurantId").in(streamRestaurantIds))))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+        if (resumeToken != null) {
+            builder.resumeAfter(resumeToken);
+        }
+
+        subscription = container.register(builder.build(), Order.class,
+                error -> handleError(generation, resumeToken != null, error));
+    }
+
+    // Callers hold streamLock
+    private void stopStream() {
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
+        }
+    }
+
+    private void deliver(Message<ChangeStreamDocument<Document>, Order> message) {
+        BsonDocument resumeToken = message.getRaw() != null ? message.getRaw().getResumeToken() : null;
+        if (resumeToken != null) {
+            latestResumeToken = resumeToken;
+            resumeTokenDirty = true;
+        }
+
+        Order order = message.getBody();
+        Set<Screen> screens = order != null && order.getRestaurantId() != null
+                ? subscribers.get(order.getRestaurantId()) : null;
+        if (screens == null || screens.isEmpty()) {
+            return;
+        }
+
+        OrderEvent orderEvent = OrderEvent.from(order);
+        SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(orderEvent, MediaType.APPLICATION_JSON);
+        if (resumeToken != null) {
+            builder.id(resumeToken.toJson());
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> event = builder.build();
+
+        long version = OrderEventBroadcaster.versionOf(orderEvent);
+        for (Screen screen : screens) {
+            screen.queue.enqueue(orderEvent.getOrderId(), version, event);
+        }
+    }
+
+    private void handleError(long generation, boolean resumed, Throwable error) {
+        List<Screen> failed = new ArrayList<>();
+        synchronized (streamLock) {
+            if (generation != streamGeneration || subscription == null) {
+                return;
+            }
+            stopStream();
+
+            if (resumed && error instanceof MongoServerException serverException
+                    && RESUME_FAILED_CODES.contains(serverException.getCode())) {
+                // The stored position is gone; restart from now rather than leaving the screens without a feed
+                logger.warn("Stored order feed resume token is no longer valid, restarting the feed");
+                latestResumeToken = null;
+                resumeTokenDirty = false;
+                startStream(null);
+                return;
+            }
+
+            // Screens reconnect on their own; the next subscriber opens a fresh change stream
+            logger.error("Restaurant order feed failed", error);
+            subscribers.values().forEach(failed::addAll);
+            subscribers.clear();
+        }
+        failed.forEach(screen -> screen.queue.drop(false));
+    }
+
+    private void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        subscribers.values().forEach(screens -> screens.forEach(screen -> {
+            if (screen.queue.isStalled(now, sendTimeoutMillis)) {
+                screen.queue.drop(true);
+            } else {
+                screen.queue.enqueueHeartbeat();
+            }
+        }));
+    }
+
+    private BsonDocument resumePosition() {
+        BsonDocument latest = latestResumeToken;
+        return latest != null ? latest : loadResumeToken();
+    }
+
+    private BsonDocument loadResumeToken() {
+        Document stored = mongoTemplate.findById(RESUME_TOKEN_ID, Document.class, RESUME_TOKEN_COLLECTION);
+        if (stored == null || !(stored.get("token") instanceof Document token)) {
+            return null;
+        }
+        Date updatedAt = stored.getDate("updatedAt");
+        if (updatedAt == null || updatedAt.toInstant().plus(maxResumeAge).isBefore(new Date().toInstant())) {
+            return null;
+        }
+        return BsonDocument.parse(token.toJson());
+    }
+
+    // One write every few seconds at most, however many changes the feed delivered meanwhile
+    private void saveResumeToken() {
+        try {
+            BsonDocument resumeToken = latestResumeToken;
+            if (!resumeTokenDirty || resumeToken == null) {
+                return;
+            }
+            resumeTokenDirty = false;
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(RESUME_TOKEN_ID)),
+                    new Update().set("token", Document.parse(resumeToken.toJson())).set("updatedAt", new Date()),
+                    RESUME_TOKEN_COLLECTION);
+        } catch (RuntimeException e) {
+            // A failed save must not cancel the schedule; the next change marks the token dirty again
+            logger.warn("Saving the order feed resume token failed", e);
+        }
+    }
+
+    // One kitchen screen and its event queue
+    private class Screen implements SseEventQueue.Listener {
+        private final String restaurantId;
+        private final SseEventQueue queue;
+
+        Screen(String restaurantId, SseEmitter emitter) {
+            this.restaurantId = restaurantId;
+            this.queue = new SseEventQueue(emitter, writers, maxPendingEvents, this);
+        }
+
+        @Override
+        public void delivered() {
+            // Kitchen screens keep no delivery statistics
+        }
+
+        @Override
+        public void dropped(SseEventQueue queue, boolean slow) {
+            unsubscribe(this);
+        }
+    }
+
+    // Thrown when the connected MongoDB deployment cannot serve change streams
+    public static class FeedUnavailableException extends RuntimeException {
+        public FeedUnavailableException() {
+            super("Live order feeds need MongoDB to run as a replica set");
+        }
+    }
+}
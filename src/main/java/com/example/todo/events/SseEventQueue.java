@@ -0,0 +1,171 @@
+package com.example.todo.events;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * One Server-Sent Event connection with its own queue of pending events.
+ * Callers only queue; the queue is drained by one writer task at a time on a shared, bounded
+ * executor, so a client that stops reading ties up at most one writer thread and never the caller.
+ * Events are queued under a key (the order id) with the order's version: a newer event replaces a
+ * pending one with the same key, so a backed-up client gets the latest state of each order rather
+ * than every step, and an event no newer than one already queued or sent for its key is skipped.
+ * When the distinct pending keys still exceed the limit the connection is dropped; the client
+ * reconnects and reloads instead of falling further behind.
+ */
+class SseEventQueue {
+
+    static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keep-alive").build();
+
+    private static final String HEARTBEAT_KEY = "keep-alive";
+
+    /**
+     * Callbacks for delivery statistics and for removing a dropped connection
+     */
+    interface Listener {
+        void delivered();
+
+        void dropped(SseEventQueue queue, boolean slow);
+    }
+
+    private final SseEmitter emitter;
+    private final Executor writers;
+    private final int maxPendingEvents;
+    private final Listener listener;
+
+    private final Map<String, Set<ResponseBodyEmitter.DataWithMediaType>> pending = new LinkedHashMap<>();
+    // Highest version queued per key
+    private final Map<String, Long> versions = new HashMap<>();
+    private boolean writing;
+    private boolean closed;
+    // Start of the write in progress, or 0 when the writer is idle
+    private volatile long writeStartedAt;
+
+    SseEventQueue(SseEmitter emitter, Executor writers, int maxPendingEvents, Listener listener) {
+        this.emitter = emitter;
+        this.writers = writers;
+        this.maxPendingEvents = maxPendingEvents;
+        this.listener = listener;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Queue an event, replacing a pending one with the same key; a negative version is always queued
+     */
+    void enqueue(String key, long version, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        boolean overflow = false;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (version >= 0) {
+                Long queued = versions.get(key);
+                if (queued != null && queued >= version) {
+                    return;
+                }
+            }
+            if (pending.containsKey(key) || pending.size() < maxPendingEvents) {
+                if (version >= 0) {
+                    versions.put(key, version);
+                }
+                pending.put(key, event);
+                if (writing) {
+                    return;
+                }
+                writing = true;
+            } else {
+                overflow = true;
+            }
+        }
+        if (overflow) {
+            drop(true);
+            return;
+        }
+        writers.execute(this::drain);
+    }
+
+    /**
+     * Queue a keep-alive comment unless events are already on their way
+     */
+    void enqueueHeartbeat() {
+        synchronized (this) {
+            if (writing) {
+                return;
+            }
+        }
+        enqueue(HEARTBEAT_KEY, -1, HEARTBEAT);
+    }
+
+    /**
+     * Whether the write in progress has been stuck for longer than the timeout
+     */
+    boolean isStalled(long now, long sendTimeoutMillis) {
+        long startedAt = writeStartedAt;
+        return startedAt > 0 && now - startedAt > sendTimeoutMillis;
+    }
+
+    /**
+     * Stop accepting events and end the connection; does nothing if already closed
+     */
+    void drop(boolean slow) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+        }
+        listener.dropped(this, slow);
+        // Completing waits for a write in progress to give up, so never do it on the caller's thread
+        writers.execute(() -> emitter.completeWithError(new IOException("Subscriber disconnected")));
+    }
+
+    /**
+     * Complete the connection normally, on shutdown
+     */
+    void complete() {
+        synchronized (this) {
+            closed = true;
+            pending.clear();
+        }
+        emitter.complete();
+    }
+
+    private void drain() {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            synchronized (this) {
+                Iterator<Set<ResponseBodyEmitter.DataWithMediaType>> next = pending.values().iterator();
+                if (closed || !next.hasNext()) {
+                    writing = false;
+                    writeStartedAt = 0;
+                    return;
+                }
+                event = next.next();
+                next.remove();
+            }
+            writeStartedAt = System.currentTimeMillis();
+            try {
+                emitter.send(event);
+                if (event != HEARTBEAT) {
+                    listener.delivered();
+                }
+            } catch (IOException | IllegalStateException e) {
+                writeStartedAt = 0;
+                drop(false);
+                return;
+            }
+        }
+    }
+}
@@ -1,19 +1,34 @@
 package com.example.todo.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @Document(collection = "menu_items")
+@CompoundIndexes({
+    // Restaurant menu pages and restaurant-scoped filters
+    @CompoundIndex(name = "restaurant_available_category", def = "{'restaurantId': 1, 'isAvailable': 1, 'category': 1}"),
+    @CompoundIndex(name = "restaurant_mealTypes", def = "{'restaurantId': 1, 'mealTypes': 1}"),
+    // Catalog-wide filters, each ending in price so price ranges and price sorts stay on the index
+    @CompoundIndex(name = "category_price", def = "{'category': 1, 'price': 1}"),
+    @CompoundIndex(name = "mealTypes_price", def = "{'mealTypes': 1, 'price': 1}"),
+    @CompoundIndex(name = "tags_price", def = "{'tags': 1, 'price': 1}"),
+    @CompoundIndex(name = "price", def = "{'price': 1}")
+})
 public class MenuItem {
     @Id
     private String id;
     
     private String name;
     private String description;
+    @Field(targetType = FieldType.DECIMAL128) // numeric storage so price ranges and sorts compare by value
     private BigDecimal price;
     private String imageUrl;
     private boolean isAvailable;
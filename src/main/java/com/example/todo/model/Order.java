@@ -1,8 +1,14 @@
 package com.example.todo.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,6 +16,21 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Document(collection = "orders")
+@CompoundIndexes({
+    // One index per list filter the order endpoints offer; each ends in (orderTime, _id) so keyset pages
+    // are read in index order without a sort stage, and date ranges use the same index. Other per-user
+    // lookups (meal type, payment, amount...) are served by the user index; rarer global lookups are not
+    // indexed, since every index is another write on each order insert and status change.
+    @CompoundIndex(name = "user_orderTime", def = "{'userId': 1, 'orderTime': -1, '_id': -1}"),
+    @CompoundIndex(name = "user_status_orderTime", def = "{'userId': 1, 'status': 1, 'orderTime': -1, '_id': -1}"),
+    @CompoundIndex(name = "restaurant_orderTime", def = "{'restaurantId': 1, 'orderTime': -1, '_id': -1}"),
+    @CompoundIndex(name = "restaurant_status_orderTime", def = "{'restaurantId': 1, 'status': 1, 'orderTime': -1, '_id': -1}"),
+    @CompoundIndex(name = "status_orderTime", def = "{'status': 1, 'orderTime': -1, '_id': -1}"),
+    @CompoundIndex(name = "mealType_orderTime", def = "{'mealType': 1, 'orderTime': -1, '_id': -1}"),
+    @CompoundIndex(name = "deliveryPerson_orderTime", def = "{'deliveryPersonPhone': 1, 'orderTime': -1, '_id': -1}"),
+    @CompoundIndex(name = "pincode_orderTime", def = "{'deliveryAddress.pincode': 1, 'orderTime': -1, '_id': -1}"),
+    @CompoundIndex(name = "orderTime", def = "{'orderTime': -1, '_id': -1}")
+})
 public class Order {
     @Id
     private String id;
@@ -20,6 +41,7 @@ public class Order {
     @DocumentReference
     private String restaurantId;
     
+    @Indexed(unique = true, sparse = true)
     private String orderNumber; // Human-readable order number
     private OrderStatus status;
     private MealType mealType;
@@ -32,6 +54,7 @@ public class Order {
     private BigDecimal subtotal;
     private BigDecimal deliveryFee;
     private BigDecimal tax;
+    @Field(targetType = FieldType.DECIMAL128) // numeric storage so amount ranges and sums compare by value
     private BigDecimal totalAmount;
     
     // Delivery information
@@ -52,6 +75,10 @@ public class Order {
     private String promoCode;
     private BigDecimal discountAmount;
     
+    // Incremented by every status, payment and delivery transition
+    @Version
+    private Long version;
+    
     public Order() {}
     
     public Order(String userId, String restaurantId, MealType mealType) {
@@ -168,6 +195,9 @@ public class Order {
     public String getPromoCode() { return promoCode; }
     public void setPromoCode(String promoCode) { this.promoCode = promoCode; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public BigDecimal getDiscountAmount() { return discountAmount; }
     public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
     
@@ -0,0 +1,58 @@
+package com.example.todo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Number of orders accepted for one restaurant, meal type and delivery date.
+ * Shared by all application instances and only changed with conditional $inc.
+ */
+@Document(collection = "order_slot_counters")
+@CompoundIndex(name = "restaurant_date", def = "{'restaurantId': 1, 'date': 1}")
+public class OrderSlotCounter {
+    @Id
+    private String id; // restaurantId|mealType|date
+    
+    private String restaurantId;
+    private Order.MealType mealType;
+    private LocalDate date;
+    private int count;
+    private int capacity;
+    
+    // Counters are only needed until the slot has been delivered
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+    
+    public OrderSlotCounter() {}
+    
+    public static String slotId(String restaurantId, Order.MealType mealType, LocalDate date) {
+        return restaurantId + "|" + mealType + "|" + date;
+    }
+    
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(String restaurantId) { this.restaurantId = restaurantId; }
+    
+    public Order.MealType getMealType() { return mealType; }
+    public void setMealType(Order.MealType mealType) { this.mealType = mealType; }
+    
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+    
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
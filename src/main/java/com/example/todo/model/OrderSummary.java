@@ -0,0 +1,63 @@
+package com.example.todo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * List view of an order: what the "my orders" and kitchen list screens show.
+ * Read with a field projection, so items, addresses and payment details never leave MongoDB.
+ */
+public class OrderSummary {
+
+    // Order document fields read into a summary
+    public static final String[] FIELDS = {
+            "id", "orderNumber", "userId", "restaurantId", "status", "mealType",
+            "paymentStatus", "totalAmount", "orderTime", "scheduledDeliveryTime"
+    };
+
+    private String id;
+    private String orderNumber;
+    private String userId;
+    private String restaurantId;
+    private Order.OrderStatus status;
+    private Order.MealType mealType;
+    private Order.PaymentStatus paymentStatus;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderTime;
+    private LocalTime scheduledDeliveryTime;
+
+    // Constructors
+    public OrderSummary() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(String restaurantId) { this.restaurantId = restaurantId; }
+
+    public Order.OrderStatus getStatus() { return status; }
+    public void setStatus(Order.OrderStatus status) { this.status = status; }
+
+    public Order.MealType getMealType() { return mealType; }
+    public void setMealType(Order.MealType mealType) { this.mealType = mealType; }
+
+    public Order.PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(Order.PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getOrderTime() { return orderTime; }
+    public void setOrderTime(LocalDateTime orderTime) { this.orderTime = orderTime; }
+
+    public LocalTime getScheduledDeliveryTime() { return scheduledDeliveryTime; }
+    public void setScheduledDeliveryTime(LocalTime scheduledDeliveryTime) { this.scheduledDeliveryTime = scheduledDeliveryTime; }
+}
@@ -1,9 +1,11 @@
 package com.example.todo.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
+import java.time.Instant;
 import java.time.LocalTime;
 import java.util.List;
 
@@ -20,7 +22,8 @@ public class Restaurant {
     private String phoneNumber;
     private String email;
     private String imageUrl;
-    private double rating;
+    private double rating; // Average, derived from ratingSum / reviewCount on every rating update
+    private Double ratingSum; // Absent on restaurants rated before it was introduced
     private int reviewCount;
     private boolean isActive;
     
@@ -39,6 +42,14 @@ public class Restaurant {
     // Restaurant categories
     private List<String> categories; // e.g., ["Indian", "Chinese", "Italian", "Fast Food"]
     
+    // Incremented by every write, including rating updates; backs the restaurant ETag
+    @Version
+    private Long version;
+    
+    // Time of the last write, so other instances pick up changed restaurants without reading them all
+    @Indexed
+    private Instant updatedAt;
+    
     public Restaurant() {}
     
     public Restaurant(String name, String description, String address, String phoneNumber, String email) {
@@ -77,6 +88,9 @@ public class Restaurant {
     public double getRating() { return rating; }
     public void setRating(double rating) { this.rating = rating; }
     
+    public Double getRatingSum() { return ratingSum; }
+    public void setRatingSum(Double ratingSum) { this.ratingSum = ratingSum; }
+    
     public int getReviewCount() { return reviewCount; }
     public void setReviewCount(int reviewCount) { this.reviewCount = reviewCount; }
     
@@ -104,12 +118,19 @@ public class Restaurant {
     public List<String> getCategories() { return categories; }
     public void setCategories(List<String> categories) { this.categories = categories; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    
     // Inner class for delivery time windows
     public static class DeliveryTimeWindow {
         private LocalTime orderStartTime;
         private LocalTime orderEndTime;
         private LocalTime deliveryStartTime;
         private LocalTime deliveryEndTime;
+        private Integer maxOrders; // Orders the kitchen can take for one delivery of this meal; null uses the configured default
         
         public DeliveryTimeWindow() {}
         
@@ -133,5 +154,8 @@ public class Restaurant {
         
         public LocalTime getDeliveryEndTime() { return deliveryEndTime; }
         public void setDeliveryEndTime(LocalTime deliveryEndTime) { this.deliveryEndTime = deliveryEndTime; }
+        
+        public Integer getMaxOrders() { return maxOrders; }
+        public void setMaxOrders(Integer maxOrders) { this.maxOrders = maxOrders; }
     }
 }
@@ -0,0 +1,58 @@
+package com.example.todo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user order counters, keyed by user id and kept current with $inc on every
+ * order creation and status transition.
+ */
+@Document(collection = "user_order_stats")
+public class UserOrderStatistics {
+    @Id
+    private String userId;
+    
+    private long totalOrders;
+    private long completedOrders;
+    private long cancelledOrders;
+    
+    // Sum of totalAmount over delivered orders
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalSpent;
+    
+    private LocalDateTime lastUpdated;
+    
+    // Constructors
+    public UserOrderStatistics() {
+        this.totalSpent = BigDecimal.ZERO;
+    }
+    
+    public UserOrderStatistics(String userId) {
+        this();
+        this.userId = userId;
+    }
+    
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+    
+    public long getCompletedOrders() { return completedOrders; }
+    public void setCompletedOrders(long completedOrders) { this.completedOrders = completedOrders; }
+    
+    public long getCancelledOrders() { return cancelledOrders; }
+    public void setCancelledOrders(long cancelledOrders) { this.cancelledOrders = cancelledOrders; }
+    
+    public BigDecimal getTotalSpent() { return totalSpent; }
+    public void setTotalSpent(BigDecimal totalSpent) { this.totalSpent = totalSpent; }
+    
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+}
@@ -0,0 +1,44 @@
+package com.example.todo.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times every HTTP request by method and matched route template (e.g. /api/menu/restaurant/{restaurantId}),
+ * so that ids in the path do not split a route into many series. Requests that switch to async
+ * processing (SSE subscriptions, NDJSON and reactive streams) are left out: their lifetime is the
+ * length of the stream, not the handling cost.
+ */
+@Component
+public class HttpLatencyFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED = "UNMATCHED";
+
+    private final LatencyRecorder latencyRecorder;
+
+    public HttpLatencyFilter(LatencyRecorder latencyRecorder) {
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                latencyRecorder.recordHttp(request.getMethod(), route != null ? route.toString() : UNMATCHED,
+                        System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.todo.monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Latency histogram over a sliding time window, cheap to record into from many threads.
+ * Latencies are counted in log-linear microsecond buckets (8 per power of two, so a reported
+ * percentile is within 12.5% of the true value) kept per fixed time slice. A window query merges
+ * the slices it covers, and a slice is cleared when the ring wraps around to reuse it.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Latencies up to 2^27 microseconds (over two minutes) are resolved; anything slower lands in the last bucket
+    static final int BUCKET_COUNT = (26 - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long sliceMillis;
+    private final Slice[] slices;
+
+    public LatencyHistogram(long sliceMillis, int sliceCount) {
+        this.sliceMillis = sliceMillis;
+        this.slices = new Slice[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    /**
+     * Record one latency observed at the given wall-clock time
+     */
+    public void record(long nanos, long nowMillis) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        long sliceId = nowMillis / sliceMillis;
+        Slice slice = slices[(int) (sliceId % slices.length)];
+        if (slice.id < sliceId) {
+            slice.reset(sliceId);
+        }
+        slice.counts.incrementAndGet(bucketOf(micros));
+        slice.maxMicros.accumulate(micros);
+    }
+
+    /**
+     * Percentiles over the last windowMillis, as of the given wall-clock time
+     */
+    public Summary summarize(long windowMillis, long nowMillis) {
+        long currentSlice = nowMillis / sliceMillis;
+        long oldestSlice = currentSlice - Math.min(slices.length, Math.max(1, windowMillis / sliceMillis)) + 1;
+
+        long[] merged = new long[BUCKET_COUNT];
+        long total = 0;
+        long maxMicros = 0;
+        for (Slice slice : slices) {
+            long id = slice.id;
+            if (id < oldestSlice || id > currentSlice) {
+                continue;
+            }
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                int count = slice.counts.get(bucket);
+                merged[bucket] += count;
+                total += count;
+            }
+            maxMicros = Math.max(maxMicros, slice.maxMicros.get());
+        }
+        return new Summary(total,
+                percentile(merged, total, 0.50, maxMicros),
+                percentile(merged, total, 0.95, maxMicros),
+                percentile(merged, total, 0.99, maxMicros),
+                maxMicros);
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKET_COUNT - 1, (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket);
+    }
+
+    // Highest latency a bucket can hold, so percentiles never under-report
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long maxMicros) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(bucket), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    // Counts of one time slice; a recording that races a reset may be dropped, which is harmless for percentiles
+    private static class Slice {
+        private volatile long id = -1;
+        private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKET_COUNT);
+        private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+        synchronized void reset(long sliceId) {
+            if (id >= sliceId) {
+                return;
+            }
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                counts.set(bucket, 0);
+            }
+            maxMicros.reset();
+            id = sliceId;
+        }
+    }
+
+    /**
+     * Count and percentiles of one window, in microseconds
+     */
+    public static class Summary {
+        private final long count;
+        private final long p50Micros;
+        private final long p95Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        public Summary(long count, long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+            this.count = count;
+            this.p50Micros = p50Micros;
+            this.p95Micros = p95Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        // Getters
+        public long getCount() { return count; }
+        public long getP50Micros() { return p50Micros; }
+        public long getP95Micros() { return p95Micros; }
+        public long getP99Micros() { return p99Micros; }
+        public long getMaxMicros() { return maxMicros; }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.todo.monitoring;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sliding-window latency histograms for HTTP routes and MongoDB commands.
+ * HTTP series are keyed by method and route template; MongoDB series by collection, command and
+ * the repository method that issued it. Each series keeps 15 minutes of 10-second slices and is
+ * reported over the last 1, 5 and 15 minutes. The number of series is capped so that unexpected
+ * keys cannot grow memory without bound; overflow is counted under a shared "other" series.
+ */
+@Component
+public class LatencyRecorder {
+
+    private static final long SLICE_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final int SLICE_COUNT = 90;
+    private static final int MAX_SERIES = 500;
+    private static final String OTHER = "other";
+
+    // Reported windows, label to length
+    private static final Map<String, Long> WINDOWS = new LinkedHashMap<>();
+    static {
+        WINDOWS.put("1m", TimeUnit.MINUTES.toMillis(1));
+        WINDOWS.put("5m", TimeUnit.MINUTES.toMillis(5));
+        WINDOWS.put("15m", TimeUnit.MINUTES.toMillis(15));
+    }
+
+    private final Map<String, Series> httpSeries = new ConcurrentHashMap<>();
+    private final Map<String, Series> mongoSeries = new ConcurrentHashMap<>();
+
+    /**
+     * Record the handling time of one HTTP request
+     */
+    public void recordHttp(String method, String route, long nanos) {
+        series(httpSeries, "method", method, "route", route).record(nanos, System.currentTimeMillis());
+    }
+
+    /**
+     * Record the round trip of one MongoDB command
+     */
+    public void recordMongo(String collection, String command, String caller, long nanos) {
+        series(mongoSeries, "collection", collection, "command", command, "caller", caller)
+                .record(nanos, System.currentTimeMillis());
+    }
+
+    /**
+     * Percentiles of every series that saw traffic in the longest window, slowest p99 over 1 minute first
+     */
+    public Map<String, Object> getLatencyStats() {
+        long now = System.currentTimeMillis();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("http", summarize(httpSeries, now));
+        stats.put("mongo", summarize(mongoSeries, now));
+        stats.put("windows", List.copyOf(WINDOWS.keySet()));
+        stats.put("timestamp", now);
+        return stats;
+    }
+
+    // Labels alternate name and value, e.g. "method", "GET", "route", "/api/menu/{id}"
+    private static LatencyHistogram series(Map<String, Series> series, String... labels) {
+        String key = String.join("|", labels);
+        Series existing = series.get(key);
+        if (existing != null) {
+            return existing.histogram;
+        }
+        if (series.size() >= MAX_SERIES) {
+            String[] overflow = labels.clone();
+            for (int i = 1; i < overflow.length; i += 2) {
+                overflow[i] = OTHER;
+            }
+            labels = overflow;
+            key = String.join("|", overflow);
+        }
+        String[] seriesLabels = labels;
+        return series.computeIfAbsent(key, k -> new Series(seriesLabels)).histogram;
+    }
+
+    private static List<Map<String, Object>> summarize(Map<String, Series> series, long now) {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        for (Series entry : series.values()) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            for (int i = 0; i < entry.labels.length; i += 2) {
+                summary.put(entry.labels[i], entry.labels[i + 1]);
+            }
+            if (putWindows(summary, entry.histogram, now)) {
+                summaries.add(summary);
+            }
+        }
+        summaries.sort(Comparator.comparingDouble(LatencyRecorder::p99OfFirstWindow).reversed());
+        return summaries;
+    }
+
+    // Adds one summary per window; false if the series saw no traffic in any of them
+    private static boolean putWindows(Map<String, Object> entry, LatencyHistogram histogram, long now) {
+        long total = 0;
+        for (Map.Entry<String, Long> window : WINDOWS.entrySet()) {
+            LatencyHistogram.Summary summary = histogram.summarize(window.getValue(), now);
+            Map<String, Object> percentiles = new LinkedHashMap<>();
+            percentiles.put("count", summary.getCount());
+            percentiles.put("p50_ms", summary.getP50Micros() / 1000.0);
+            percentiles.put("p95_ms", summary.getP95Micros() / 1000.0);
+            percentiles.put("p99_ms", summary.getP99Micros() / 1000.0);
+            percentiles.put("max_ms", summary.getMaxMicros() / 1000.0);
+            entry.put(window.getKey(), percentiles);
+            total = Math.max(total, summary.getCount());
+        }
+        return total > 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static double p99OfFirstWindow(Map<String, Object> entry) {
+        Map<String, Object> first = (Map<String, Object>) entry.get(WINDOWS.keySet().iterator().next());
+        return (double) first.get("p99_ms");
+    }
+
+    // Inner class pairing a histogram with the labels it is reported under
+    private static class Series {
+        private final String[] labels;
+        private final LatencyHistogram histogram = new LatencyHistogram(SLICE_MILLIS, SLICE_COUNT);
+
+        Series(String[] labels) {
+            this.labels = labels;
+        }
+    }
+}
@@ -1,24 +1,104 @@
 package com.example.todo.monitoring;
 
+import com.example.todo.config.ThreadingConfig;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 /**
  * Custom Memory Monitoring Service for MCP Integration
- * Provides detailed memory metrics that can be accessed via MCP server
+ * Provides detailed memory metrics that can be accessed via MCP server.
+ * A background sampler also records heap, non-heap, allocation rate, GC pauses, threads and CPU
+ * into a fixed-size ring buffer, so trends (by default the last hour at 5-second resolution) can be
+ * read without polling. GC pauses come from collector notifications rather than sampled counters,
+ * so each interval reports its true longest pause.
  */
 @Service
 public class MemoryMonitoringService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MemoryMonitoringService.class);
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    // Ring buffer columns, in the order samples are appended
+    private static final List<String> METRICS = List.of(
+            "heap_used_mb", "heap_committed_mb", "non_heap_used_mb", "allocation_rate_mb_per_sec",
+            "gc_count", "gc_pause_ms", "gc_max_pause_ms",
+            "thread_count", "daemon_thread_count", "process_cpu_load", "system_cpu_load");
+
     private final MemoryMXBean memoryMXBean;
+    private final ThreadMXBean threadMXBean;
+    private final OperatingSystemMXBean operatingSystemMXBean;
+    private final Set<String> heapPoolNames;
+
+    private final long intervalMillis;
+    private final TelemetryRingBuffer telemetry;
+    private final ScheduledExecutorService sampler;
+
+    // GC activity since the previous sample, fed by collector notifications
+    private final NotificationListener gcListener = this::onGarbageCollection;
+    private final List<NotificationEmitter> gcEmitters = new ArrayList<>();
+    private final LongAdder gcPauses = new LongAdder();
+    private final LongAdder gcPauseMillis = new LongAdder();
+    private final LongAccumulator gcMaxPauseMillis = new LongAccumulator(Math::max, 0);
+    private final LongAdder gcReclaimedBytes = new LongAdder();
+
+    // Only touched by the sampler thread
+    private long previousSampleMillis;
+    private long previousHeapUsed;
 
-    public MemoryMonitoringService() {
+    public MemoryMonitoringService(@Value("${monitoring.telemetry.interval-seconds:5}") long intervalSeconds,
+                                   @Value("${monitoring.telemetry.capacity:720}") int capacity) {
         this.memoryMXBean = ManagementFactory.getMemoryMXBean();
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+        this.heapPoolNames = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getName)
+                .collect(Collectors.toSet());
+        this.intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        this.telemetry = new TelemetryRingBuffer(METRICS, capacity);
+
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+                gcEmitters.add(emitter);
+            }
+        }
+
+        this.sampler = Executors.newSingleThreadScheduledExecutor(ThreadingConfig.daemonThreads("jvm-telemetry-"));
+        this.sampler.scheduleAtFixedRate(this::sample, 0, intervalSeconds, TimeUnit.SECONDS);
     }
 
     public double getHeapUsed() {
@@ -61,8 +141,107 @@ public class MemoryMonitoringService {
         
         stats.put("heap", heapStats);
         stats.put("non_heap", nonHeapStats);
+        stats.put("latest_sample", telemetry.latest());
         stats.put("timestamp", System.currentTimeMillis());
         
         return stats;
     }
+
+    /**
+     * Get the sampled telemetry of the last window (all retained samples when null or longer),
+     * oldest first, as one array per metric. CPU loads are fractions of 1, or -1 when unavailable.
+     */
+    public Map<String, Object> getTimeSeries(Duration window) {
+        long now = System.currentTimeMillis();
+        long retentionMillis = intervalMillis * telemetry.getCapacity();
+        long windowMillis = window == null ? retentionMillis : Math.min(window.toMillis(), retentionMillis);
+
+        Map<String, Object> timeSeries = new LinkedHashMap<>();
+        timeSeries.put("interval_seconds", intervalMillis / 1000);
+        timeSeries.put("retention_seconds", retentionMillis / 1000);
+        timeSeries.put("window_seconds", windowMillis / 1000);
+        timeSeries.put("series", telemetry.since(now - windowMillis));
+        timeSeries.put("timestamp", now);
+        return timeSeries;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sampler.shutdownNow();
+        for (NotificationEmitter emitter : gcEmitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException e) {
+                // Already removed
+            }
+        }
+    }
+
+    private void sample() {
+        try {
+            long now = System.currentTimeMillis();
+            MemoryUsage heapUsage = memoryMXBean.getHeapMemoryUsage();
+            MemoryUsage nonHeapUsage = memoryMXBean.getNonHeapMemoryUsage();
+
+            // Allocated = heap growth since the last sample plus whatever the collectors reclaimed meanwhile
+            long reclaimed = gcReclaimedBytes.sumThenReset();
+            double allocationRate = 0;
+            if (previousSampleMillis > 0 && now > previousSampleMillis) {
+                long allocated = Math.max(0, heapUsage.getUsed() - previousHeapUsed + reclaimed);
+                allocationRate = allocated / MB / ((now - previousSampleMillis) / 1000.0);
+            }
+            previousSampleMillis = now;
+            previousHeapUsed = heapUsage.getUsed();
+
+            double processCpuLoad = -1;
+            double systemCpuLoad = -1;
+            if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean os) {
+                processCpuLoad = os.getProcessCpuLoad();
+                systemCpuLoad = os.getCpuLoad();
+            }
+
+            telemetry.append(now,
+                    heapUsage.getUsed() / MB,
+                    heapUsage.getCommitted() / MB,
+                    nonHeapUsage.getUsed() / MB,
+                    allocationRate,
+                    gcPauses.sumThenReset(),
+                    gcPauseMillis.sumThenReset(),
+                    gcMaxPauseMillis.getThenReset(),
+                    threadMXBean.getThreadCount(),
+                    threadMXBean.getDaemonThreadCount(),
+                    processCpuLoad,
+                    systemCpuLoad);
+        } catch (RuntimeException e) {
+            // A failed sample must not cancel the schedule
+            logger.warn("JVM telemetry sample failed", e);
+        }
+    }
+
+    private void onGarbageCollection(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        GcInfo gcInfo = info.getGcInfo();
+
+        // Net over the heap pools only: survivors promoted into the old generation offset what the young
+        // generation freed, and non-heap pools such as Metaspace are not part of the allocation rate
+        long reclaimed = 0;
+        for (Map.Entry<String, MemoryUsage> before : gcInfo.getMemoryUsageBeforeGc().entrySet()) {
+            MemoryUsage after = gcInfo.getMemoryUsageAfterGc().get(before.getKey());
+            if (after != null && heapPoolNames.contains(before.getKey())) {
+                reclaimed += before.getValue().getUsed() - after.getUsed();
+            }
+        }
+        gcReclaimedBytes.add(reclaimed);
+
+        // ZGC/Shenandoah "Cycles" and G1 "Concurrent GC" run alongside the application; their duration is not a pause
+        String gcName = info.getGcName();
+        if (!gcName.contains("Cycles") && !gcName.contains("Concurrent")) {
+            gcPauses.increment();
+            gcPauseMillis.add(gcInfo.getDuration());
+            gcMaxPauseMillis.accumulate(gcInfo.getDuration());
+        }
+    }
 }
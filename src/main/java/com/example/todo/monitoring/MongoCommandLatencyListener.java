@@ -0,0 +1,68 @@
+package com.example.todo.monitoring;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every MongoDB command sent by the sync and reactive drivers.
+ * The collection and calling repository method are captured when the command starts, which for the
+ * sync driver is on the calling thread, and the driver-measured round trip is recorded when it
+ * completes. Failed commands are timed too, so timeouts show up in the tail.
+ */
+public class MongoCommandLatencyListener implements CommandListener {
+
+    private final LatencyRecorder latencyRecorder;
+
+    // Labels of commands in flight, by driver request id
+    private final Map<Integer, String[]> inFlight = new ConcurrentHashMap<>();
+
+    public MongoCommandLatencyListener(LatencyRecorder latencyRecorder) {
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        inFlight.put(event.getRequestId(), new String[] {
+                collectionOf(event.getCommandName(), event.getCommand()),
+                event.getCommandName(),
+                RepositoryMethodTagger.currentMethod()
+        });
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(int requestId, long nanos) {
+        String[] labels = inFlight.remove(requestId);
+        if (labels != null) {
+            latencyRecorder.recordMongo(labels[0], labels[1], labels[2], nanos);
+        }
+    }
+
+    // CRUD commands name their collection as the command value; getMore names it in a separate field
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : databaseOf(command);
+    }
+
+    // Commands without a collection (ping, endSessions, ...) are grouped under their database
+    private static String databaseOf(BsonDocument command) {
+        BsonValue database = command.get("$db");
+        return database != null && database.isString() ? database.asString().getValue() : "-";
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.todo.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Repository proxy advice that names the repository method running on the current thread,
+ * so that MongoDB commands it issues can be attributed to it. Commands sent outside a repository
+ * call (MongoTemplate used directly, cursor getMores after a stream was returned, reactive
+ * pipelines) are reported with {@link #NO_REPOSITORY}.
+ */
+public class RepositoryMethodTagger implements MethodInterceptor {
+
+    public static final String NO_REPOSITORY = "-";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String repositoryName;
+
+    public RepositoryMethodTagger(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    /**
+     * Repository method running on this thread, e.g. "OrderRepository.findPage"
+     */
+    public static String currentMethod() {
+        String method = CURRENT.get();
+        return method != null ? method : NO_REPOSITORY;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String outer = CURRENT.get();
+        CURRENT.set(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
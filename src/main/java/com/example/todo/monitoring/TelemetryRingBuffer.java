@@ -0,0 +1,91 @@
+package com.example.todo.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-size ring of telemetry samples, one primitive column per metric.
+ * Appending overwrites the oldest sample once the ring is full, so memory stays constant no matter
+ * how long the application runs. Reads copy out the samples inside a time window in columnar form.
+ */
+public class TelemetryRingBuffer {
+
+    private final List<String> metrics;
+    private final long[] timestamps;
+    private final double[][] columns;
+
+    // Total samples ever appended; the next one goes to written % capacity
+    private long written;
+
+    public TelemetryRingBuffer(List<String> metrics, int capacity) {
+        this.metrics = List.copyOf(metrics);
+        this.timestamps = new long[capacity];
+        this.columns = new double[metrics.size()][capacity];
+    }
+
+    /**
+     * Append one sample; values are in the order of the metric names
+     */
+    public synchronized void append(long timestamp, double... values) {
+        int slot = (int) (written % timestamps.length);
+        timestamps[slot] = timestamp;
+        for (int metric = 0; metric < columns.length; metric++) {
+            columns[metric][slot] = values[metric];
+        }
+        written++;
+    }
+
+    /**
+     * Samples taken at or after the given time, oldest first: a "timestamps" array and one array per metric
+     */
+    public synchronized Map<String, Object> since(long fromTimestamp) {
+        int available = (int) Math.min(written, timestamps.length);
+        int first = available;
+        // Walk back from the newest sample while it is inside the window
+        while (first > 0 && timestamps[slotOf(written - available + first - 1)] >= fromTimestamp) {
+            first--;
+        }
+        int count = available - first;
+        long start = written - count;
+
+        long[] times = new long[count];
+        double[][] values = new double[columns.length][count];
+        for (int i = 0; i < count; i++) {
+            int slot = slotOf(start + i);
+            times[i] = timestamps[slot];
+            for (int metric = 0; metric < columns.length; metric++) {
+                values[metric][i] = columns[metric][slot];
+            }
+        }
+
+        Map<String, Object> series = new LinkedHashMap<>();
+        series.put("timestamps", times);
+        for (int metric = 0; metric < columns.length; metric++) {
+            series.put(metrics.get(metric), values[metric]);
+        }
+        return series;
+    }
+
+    /**
+     * Most recent sample as metric name to value, or an empty map before the first sample
+     */
+    public synchronized Map<String, Double> latest() {
+        Map<String, Double> latest = new LinkedHashMap<>();
+        if (written > 0) {
+            int slot = slotOf(written - 1);
+            for (int metric = 0; metric < columns.length; metric++) {
+                latest.put(metrics.get(metric), columns[metric][slot]);
+            }
+        }
+        return latest;
+    }
+
+    public int getCapacity() {
+        return timestamps.length;
+    }
+
+    private int slotOf(long sample) {
+        return (int) (sample % timestamps.length);
+    }
+}
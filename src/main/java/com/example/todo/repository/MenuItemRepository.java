@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MenuItemRepository extends MongoRepository<MenuItem, String> {
+public interface MenuItemRepository extends MongoRepository<MenuItem, String>, MenuItemRepositoryCustom {
     
     // Find menu items by restaurant
     List<MenuItem> findByRestaurantId(String restaurantId);
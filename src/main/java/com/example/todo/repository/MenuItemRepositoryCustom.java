@@ -0,0 +1,16 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.MenuItem;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+public interface MenuItemRepositoryCustom {
+    
+    // Find menu items matching dynamically built criteria in a single query; a limit of 0 means no limit
+    List<MenuItem> findByCriteria(Criteria criteria, Sort sort, int limit);
+    
+    // Convert prices still stored as strings to Decimal128; returns the number of items converted
+    long convertLegacyPrices();
+}
@@ -0,0 +1,41 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.MenuItem;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import java.util.List;
+
+public class MenuItemRepositoryCustomImpl implements MenuItemRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<MenuItem> findByCriteria(Criteria criteria, Sort sort, int limit) {
+        Query query = new Query(criteria).with(sort).limit(limit);
+        return mongoTemplate.find(query, MenuItem.class);
+    }
+    
+    @Override
+    public long convertLegacyPrices() {
+        // Unparseable strings are left as they are rather than failing the whole update
+        Document toDecimal = new Document("$convert", new Document("input", "$price")
+                .append("to", "decimal")
+                .append("onError", "$price"));
+        AggregationUpdate update = AggregationUpdate.from(List.<AggregationOperation>of(
+                context -> new Document("$set", new Document("price", toDecimal))));
+        
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("price").type(JsonSchemaObject.Type.STRING)),
+                update,
+                MenuItem.class).getModifiedCount();
+    }
+}
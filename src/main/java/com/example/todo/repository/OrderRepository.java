@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends MongoRepository<Order, String> {
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {
     
     // Find orders by user
     List<Order> findByUserId(String userId);
@@ -36,9 +36,6 @@ public interface OrderRepository extends MongoRepository<Order, String> {
     // Find orders by order number
     Optional<Order> findByOrderNumber(String orderNumber);
     
-    // Find orders by payment status
-    List<Order> findByPaymentStatus(Order.PaymentStatus paymentStatus);
-    
     // Find orders by user and payment status
     List<Order> findByUserIdAndPaymentStatus(String userId, Order.PaymentStatus paymentStatus);
     
@@ -70,23 +67,13 @@ public interface OrderRepository extends MongoRepository<Order, String> {
     @Query("{'userId': ?0, 'deliveryAddress.pincode': ?1}")
     List<Order> findByUserIdAndDeliveryPincode(String userId, String pincode);
     
-    // Find orders by total amount range
-    @Query("{'totalAmount': {$gte: ?0, $lte: ?1}}")
-    List<Order> findByTotalAmountBetween(double minAmount, double maxAmount);
-    
     // Find orders by user and total amount range
     @Query("{'userId': ?0, 'totalAmount': {$gte: ?1, $lte: ?2}}")
     List<Order> findByUserIdAndTotalAmountBetween(String userId, double minAmount, double maxAmount);
     
-    // Find orders by payment method
-    List<Order> findByPaymentMethod(Order.PaymentMethod paymentMethod);
-    
     // Find orders by user and payment method
     List<Order> findByUserIdAndPaymentMethod(String userId, Order.PaymentMethod paymentMethod);
     
-    // Find orders by promo code
-    List<Order> findByPromoCode(String promoCode);
-    
     // Find orders by user and promo code
     List<Order> findByUserIdAndPromoCode(String userId, String promoCode);
     
@@ -106,10 +93,6 @@ public interface OrderRepository extends MongoRepository<Order, String> {
     @Query("{'restaurantId': ?0, 'status': {$in: ?1}}")
     List<Order> findByRestaurantIdAndStatusIn(String restaurantId, List<Order.OrderStatus> statuses);
     
-    // Find orders by scheduled delivery time range
-    @Query("{'scheduledDeliveryTime': {$gte: ?0, $lte: ?1}}")
-    List<Order> findByScheduledDeliveryTimeBetween(String startTime, String endTime);
-    
     // Find orders by user and scheduled delivery time range
     @Query("{'userId': ?0, 'scheduledDeliveryTime': {$gte: ?1, $lte: ?2}}")
     List<Order> findByUserIdAndScheduledDeliveryTimeBetween(String userId, String startTime, String endTime);
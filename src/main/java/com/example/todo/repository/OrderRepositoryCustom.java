@@ -0,0 +1,31 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Order;
+import com.example.todo.model.OrderSummary;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface OrderRepositoryCustom {
+    
+    // Find a page of order summaries (newest first) positioned strictly after the (orderTime, id) keyset
+    List<OrderSummary> findPage(Criteria criteria, LocalDateTime afterOrderTime, String afterId, int limit);
+    
+    // Stream order summaries (newest first) straight from the MongoDB cursor; the caller must close the stream
+    Stream<OrderSummary> streamAll(Criteria criteria);
+    
+    // Insert orders with a single unordered bulk write; returns the error message of each failed position
+    Map<Integer, String> bulkInsert(List<Order> orders);
+    
+    // Apply an update only while the order is in one of the expected statuses; returns the order as it was
+    // before the update, or null if no order with that id is in an expected status
+    Order updateIfStatusIn(String orderId, Collection<Order.OrderStatus> expectedStatuses, UpdateDefinition update);
+    
+    // Convert order totals still stored as strings to Decimal128; returns the number of orders converted
+    long convertLegacyTotals();
+}
@@ -0,0 +1,121 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Order;
+import com.example.todo.model.OrderSummary;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keyset pagination and cursor streaming for order lists, bulk inserts, conditional status updates
+ * and the conversion of legacy string totals.
+ * Lists are always returned by (orderTime, id) descending, which the Order indexes cover,
+ * so a page costs the same no matter how deep into the result it starts. List queries project
+ * only the OrderSummary fields.
+ */
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+    
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "orderTime", "id");
+    private static final int STREAM_BATCH_SIZE = 100;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<OrderSummary> findPage(Criteria criteria, LocalDateTime afterOrderTime, String afterId, int limit) {
+        Criteria pageCriteria = criteria;
+        if (afterOrderTime != null && afterId != null) {
+            Criteria afterKey = new Criteria().orOperator(
+                    Criteria.where("orderTime").lt(afterOrderTime),
+                    Criteria.where("orderTime").is(afterOrderTime).and("id").lt(afterId));
+            pageCriteria = new Criteria().andOperator(criteria, afterKey);
+        }
+        
+        return mongoTemplate.find(summaryQuery(pageCriteria).limit(limit), OrderSummary.class, collectionName());
+    }
+    
+    @Override
+    public Stream<OrderSummary> streamAll(Criteria criteria) {
+        Query query = summaryQuery(criteria).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, OrderSummary.class, collectionName());
+    }
+    
+    private static Query summaryQuery(Criteria criteria) {
+        Query query = new Query(criteria).with(KEYSET_SORT);
+        query.fields().include(OrderSummary.FIELDS);
+        return query;
+    }
+    
+    private String collectionName() {
+        return mongoTemplate.getCollectionName(Order.class);
+    }
+    
+    @Override
+    public Map<Integer, String> bulkInsert(List<Order> orders) {
+        Map<Integer, String> failures = new HashMap<>();
+        if (orders.isEmpty()) {
+            return failures;
+        }
+        
+        // Assign ids up front so callers can report them; the bulk write does not map generated ids back
+        for (Order order : orders) {
+            if (order.getId() == null) {
+                order.setId(new ObjectId().toHexString());
+            }
+            if (order.getVersion() == null) {
+                order.setVersion(0L);
+            }
+        }
+        
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)
+                    .insert(orders)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return failures;
+    }
+    
+    @Override
+    public Order updateIfStatusIn(String orderId, Collection<Order.OrderStatus> expectedStatuses, UpdateDefinition update) {
+        Query query = Query.query(Criteria.where("id").is(orderId).and("status").in(expectedStatuses));
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Order.class);
+    }
+    
+    @Override
+    public long convertLegacyTotals() {
+        // Unparseable strings are left as they are rather than failing the whole update
+        Document toDecimal = new Document("$convert", new Document("input", "$totalAmount")
+                .append("to", "decimal")
+                .append("onError", "$totalAmount"));
+        AggregationUpdate update = AggregationUpdate.from(List.<AggregationOperation>of(
+                context -> new Document("$set", new Document("totalAmount", toDecimal))));
+        
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("totalAmount").type(JsonSchemaObject.Type.STRING)),
+                update,
+                Order.class).getModifiedCount();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.OrderSlotCounter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OrderSlotCounterRepository extends MongoRepository<OrderSlotCounter, String>, OrderSlotCounterRepositoryCustom {
+    
+    // Find the slot counters of a restaurant for one delivery date
+    List<OrderSlotCounter> findByRestaurantIdAndDate(String restaurantId, LocalDate date);
+}
@@ -0,0 +1,15 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Order;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface OrderSlotCounterRepositoryCustom {
+    
+    // Atomically add count orders to a slot if it stays within capacity; returns the new slot count, or -1 if the slot is full
+    int tryReserve(String restaurantId, Order.MealType mealType, LocalDate date, int count, int capacity, LocalDateTime expiresAt);
+    
+    // Give back count previously reserved orders
+    void release(String restaurantId, Order.MealType mealType, LocalDate date, int count);
+}
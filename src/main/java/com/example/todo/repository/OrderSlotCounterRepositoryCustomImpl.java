@@ -0,0 +1,63 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Order;
+import com.example.todo.model.OrderSlotCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Conditional slot counter updates.
+ * A reservation upserts the slot only while count + n stays within capacity. The filter has a
+ * predicate besides _id, so the server does not retry an upsert that collides with the existing
+ * _id: that happens both when the slot is full and when another order created the counter first.
+ * A collision is therefore retried once as a plain conditional update, and only a miss on that
+ * retry is reported as a full slot.
+ */
+public class OrderSlotCounterRepositoryCustomImpl implements OrderSlotCounterRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public int tryReserve(String restaurantId, Order.MealType mealType, LocalDate date, int count, int capacity, LocalDateTime expiresAt) {
+        if (count > capacity) {
+            return -1;
+        }
+        
+        Query query = Query.query(Criteria.where("_id").is(OrderSlotCounter.slotId(restaurantId, mealType, date))
+                .and("count").lte(capacity - count));
+        Update update = new Update()
+                .inc("count", count)
+                .set("capacity", capacity)
+                .setOnInsert("restaurantId", restaurantId)
+                .setOnInsert("mealType", mealType)
+                .setOnInsert("date", date)
+                .setOnInsert("expiresAt", expiresAt);
+        
+        OrderSlotCounter counter;
+        try {
+            counter = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), OrderSlotCounter.class);
+        } catch (DuplicateKeyException e) {
+            // The counter exists now; whether it has room is decided by the conditional update alone
+            counter = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true), OrderSlotCounter.class);
+        }
+        return counter != null ? counter.getCount() : -1;
+    }
+    
+    @Override
+    public void release(String restaurantId, Order.MealType mealType, LocalDate date, int count) {
+        Query query = Query.query(Criteria.where("_id").is(OrderSlotCounter.slotId(restaurantId, mealType, date))
+                .and("count").gte(count));
+        mongoTemplate.updateFirst(query, new Update().inc("count", -count), OrderSlotCounter.class);
+    }
+}
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RestaurantRepository extends MongoRepository<Restaurant, String> {
+public interface RestaurantRepository extends MongoRepository<Restaurant, String>, RestaurantRepositoryCustom {
     
     // Find restaurants by name (case-insensitive)
     List<Restaurant> findByNameContainingIgnoreCase(String name);
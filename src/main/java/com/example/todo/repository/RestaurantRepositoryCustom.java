@@ -0,0 +1,12 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Restaurant;
+
+public interface RestaurantRepositoryCustom {
+    
+    // Atomically add one rating and return the updated restaurant, or null if it does not exist
+    Restaurant addRating(String id, double rating);
+    
+    // Give restaurants written before versioning a starting version, so that saving them updates in place
+    long initializeVersions();
+}
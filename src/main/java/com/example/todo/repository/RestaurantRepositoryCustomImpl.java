@@ -0,0 +1,62 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Restaurant;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Single round-trip rating updates.
+ * The rating sum and review count are incremented and the average recomputed inside one
+ * findAndModify, so concurrent raters never overwrite each other. The average is still
+ * stored on the document so that rating filters and indexes keep working, and the document
+ * version and updatedAt are bumped in the same update.
+ */
+public class RestaurantRepositoryCustomImpl implements RestaurantRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private Clock clock;
+    
+    @Override
+    public Restaurant addRating(String id, double rating) {
+        // Documents written before ratingSum existed start from rating * reviewCount
+        Document previousSum = new Document("$ifNull", List.of("$ratingSum",
+                new Document("$multiply", List.of("$rating", "$reviewCount"))));
+        
+        AggregationUpdate update = AggregationUpdate.from(List.<AggregationOperation>of(
+                context -> new Document("$set", new Document()
+                        .append("ratingSum", new Document("$add", List.of(previousSum, rating)))
+                        .append("reviewCount", new Document("$add", List.of("$reviewCount", 1)))
+                        .append("version", new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0L)), 1L)))
+                        .append("updatedAt", Date.from(clock.instant()))),
+                context -> new Document("$set", new Document("rating",
+                        new Document("$divide", List.of("$ratingSum", "$reviewCount"))))));
+        
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Restaurant.class);
+    }
+    
+    @Override
+    public long initializeVersions() {
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L),
+                Restaurant.class).getModifiedCount();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.UserOrderStatistics;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserOrderStatisticsRepository extends MongoRepository<UserOrderStatistics, String>, UserOrderStatisticsRepositoryCustom {
+}
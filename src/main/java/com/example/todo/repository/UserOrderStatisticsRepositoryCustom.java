@@ -0,0 +1,17 @@
+package com.example.todo.repository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public interface UserOrderStatisticsRepositoryCustom {
+    
+    // Atomically add the given deltas to a user's counters, creating the document if needed
+    void increment(String userId, long totalOrders, long completedOrders, long cancelledOrders, BigDecimal totalSpent);
+    
+    // Add newly placed orders for many users in one bulk write
+    void incrementTotalOrders(Map<String, Long> ordersByUser);
+    
+    // Recompute every user's counters from the orders collection, removing those of users without orders;
+    // returns the number of users written
+    int rebuildFromOrders();
+}
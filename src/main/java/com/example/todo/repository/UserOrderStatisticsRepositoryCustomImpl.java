@@ -0,0 +1,127 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Order;
+import com.example.todo.model.UserOrderStatistics;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Counter updates for user order statistics.
+ * Every update is a single upsert with $inc, so concurrent writers never lose each other's changes.
+ * A rebuild groups the orders per user in MongoDB and streams the result into bulk upserts.
+ */
+public class UserOrderStatisticsRepositoryCustomImpl implements UserOrderStatisticsRepositoryCustom {
+    
+    private static final int REBUILD_BATCH_SIZE = 500;
+    // Stamped by a rebuild on every counter document it wrote
+    private static final String REBUILD_ID_FIELD = "rebuildId";
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private Clock clock;
+    
+    @Override
+    public void increment(String userId, long totalOrders, long completedOrders, long cancelledOrders, BigDecimal totalSpent) {
+        if (userId == null) {
+            return;
+        }
+        
+        Update update = new Update().set("lastUpdated", LocalDateTime.now(clock));
+        if (totalOrders != 0) {
+            update.inc("totalOrders", totalOrders);
+        }
+        if (completedOrders != 0) {
+            update.inc("completedOrders", completedOrders);
+        }
+        if (cancelledOrders != 0) {
+            update.inc("cancelledOrders", cancelledOrders);
+        }
+        if (totalSpent != null && totalSpent.signum() != 0) {
+            update.inc("totalSpent", new Decimal128(totalSpent));
+        }
+        
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), update, UserOrderStatistics.class);
+    }
+    
+    @Override
+    public void incrementTotalOrders(Map<String, Long> ordersByUser) {
+        if (ordersByUser.isEmpty()) {
+            return;
+        }
+        
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserOrderStatistics.class);
+        LocalDateTime now = LocalDateTime.now(clock);
+        ordersByUser.forEach((userId, count) -> bulkOps.upsert(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("totalOrders", count).set("lastUpdated", now)));
+        bulkOps.execute();
+    }
+    
+    @Override
+    public int rebuildFromOrders() {
+        Document delivered = new Document("$eq", List.of("$status", Order.OrderStatus.DELIVERED.name()));
+        Document cancelled = new Document("$eq", List.of("$status", Order.OrderStatus.CANCELLED.name()));
+        Document amount = new Document("$convert", new Document("input", "$totalAmount")
+                .append("to", "decimal")
+                .append("onError", new Decimal128(0))
+                .append("onNull", new Decimal128(0)));
+        Document group = new Document("_id", "$userId")
+                .append("totalOrders", new Document("$sum", 1))
+                .append("completedOrders", new Document("$sum", new Document("$cond", List.of(delivered, 1, 0))))
+                .append("cancelledOrders", new Document("$sum", new Document("$cond", List.of(cancelled, 1, 0))))
+                .append("totalSpent", new Document("$sum", new Document("$cond", List.of(delivered, amount, new Decimal128(0)))));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").ne(null)),
+                context -> new Document("$group", group))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).cursorBatchSize(REBUILD_BATCH_SIZE).build());
+        
+        // Set rather than increment, so the rebuild also repairs counters that have drifted; counters the
+        // aggregation did not stamp belong to users without orders and are removed afterwards
+        String rebuildId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now(clock);
+        int users = 0;
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserOrderStatistics.class);
+        int pending = 0;
+        try (Stream<Document> stats = mongoTemplate.aggregateStream(aggregation,
+                mongoTemplate.getCollectionName(Order.class), Document.class)) {
+            for (Document userStats : (Iterable<Document>) stats::iterator) {
+                bulkOps.upsert(Query.query(Criteria.where("_id").is(userStats.get("_id"))), new Update()
+                        .set("totalOrders", ((Number) userStats.get("totalOrders")).longValue())
+                        .set("completedOrders", ((Number) userStats.get("completedOrders")).longValue())
+                        .set("cancelledOrders", ((Number) userStats.get("cancelledOrders")).longValue())
+                        .set("totalSpent", userStats.get("totalSpent"))
+                        .set("lastUpdated", now)
+                        .set(REBUILD_ID_FIELD, rebuildId));
+                users++;
+                if (++pending == REBUILD_BATCH_SIZE) {
+                    bulkOps.execute();
+                    bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserOrderStatistics.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulkOps.execute();
+        }
+        mongoTemplate.remove(Query.query(Criteria.where(REBUILD_ID_FIELD).ne(rebuildId)), UserOrderStatistics.class);
+        return users;
+    }
+}
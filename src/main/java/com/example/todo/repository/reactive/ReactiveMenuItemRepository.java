@@ -0,0 +1,22 @@
+package com.example.todo.repository.reactive;
+
+import com.example.todo.model.MenuItem;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking menu item reads on the reactive MongoDB driver
+ */
+@Repository
+public interface ReactiveMenuItemRepository extends ReactiveMongoRepository<MenuItem, String> {
+    
+    // Find available menu items by restaurant
+    Flux<MenuItem> findByRestaurantIdAndIsAvailableTrue(String restaurantId);
+    
+    // Find menu items by restaurant and meal type
+    Flux<MenuItem> findByRestaurantIdAndMealTypesContaining(String restaurantId, String mealType);
+    
+    // Find menu items by restaurant and category
+    Flux<MenuItem> findByRestaurantIdAndCategory(String restaurantId, String category);
+}
@@ -0,0 +1,27 @@
+package com.example.todo.repository.reactive;
+
+import com.example.todo.model.Order;
+import com.example.todo.model.OrderSummary;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking order reads on the reactive MongoDB driver
+ */
+@Repository
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<Order, String> {
+    
+    // Find order summaries by user, newest first (projected to the summary fields)
+    Flux<OrderSummary> findByUserIdOrderByOrderTimeDesc(String userId);
+    
+    // Find order summaries by restaurant, newest first
+    Flux<OrderSummary> findByRestaurantIdOrderByOrderTimeDesc(String restaurantId);
+    
+    // Find order summaries by restaurant and status, newest first
+    Flux<OrderSummary> findByRestaurantIdAndStatusOrderByOrderTimeDesc(String restaurantId, Order.OrderStatus status);
+    
+    // Find order by order number
+    Mono<Order> findByOrderNumber(String orderNumber);
+}
@@ -0,0 +1,25 @@
+package com.example.todo.repository.reactive;
+
+import com.example.todo.model.Restaurant;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking restaurant reads on the reactive MongoDB driver
+ */
+@Repository
+public interface ReactiveRestaurantRepository extends ReactiveMongoRepository<Restaurant, String> {
+    
+    // Find active restaurants
+    Flux<Restaurant> findByIsActiveTrue();
+    
+    // Find active restaurants by category
+    Flux<Restaurant> findByCategoriesContainingAndIsActiveTrue(String category);
+    
+    // Find active restaurants by delivery area (pincode)
+    Flux<Restaurant> findByDeliveryAreasContainingAndIsActiveTrue(String pincode);
+    
+    // Find active restaurants by minimum rating
+    Flux<Restaurant> findByRatingGreaterThanEqualAndIsActiveTrue(double minRating);
+}
@@ -0,0 +1,240 @@
+package com.example.todo.search;
+
+import com.example.todo.model.Order;
+import com.example.todo.model.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Pincode to active restaurant index.
+ * Pincodes are kept as a sorted int array (binary search, no boxing on lookup) pointing at a
+ * compact per-pincode array of restaurants, best rated first, each with a bitmask of the meal
+ * types it has a delivery window for (bit = MealType ordinal, as in TimeBasedOrderingService).
+ * Snapshots are immutable; a restaurant write only rebuilds the pincode rows it touches.
+ */
+@Component
+public class DeliveryAreaIndex {
+
+    public static final int ANY_MEAL = (1 << Order.MealType.values().length) - 1;
+
+    private static final Comparator<Restaurant> BY_RATING = Comparator
+            .comparingDouble(Restaurant::getRating).reversed()
+            .thenComparing(Restaurant::getId);
+
+    // Pincodes each indexed restaurant is currently listed under, for incremental updates
+    private final Map<String, int[]> pincodesByRestaurant = new HashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(new int[0], new Area[0]);
+    private volatile boolean ready;
+
+    /**
+     * Replace the whole index contents
+     */
+    public synchronized void rebuild(Iterable<Restaurant> restaurants) {
+        pincodesByRestaurant.clear();
+        Map<Integer, List<Restaurant>> byPincode = new TreeMap<>();
+        for (Restaurant restaurant : restaurants) {
+            int[] pincodes = pincodesOf(restaurant);
+            if (pincodes.length > 0) {
+                pincodesByRestaurant.put(restaurant.getId(), pincodes);
+                for (int pincode : pincodes) {
+                    byPincode.computeIfAbsent(pincode, p -> new ArrayList<>()).add(restaurant);
+                }
+            }
+        }
+
+        int[] keys = new int[byPincode.size()];
+        Area[] areas = new Area[byPincode.size()];
+        int i = 0;
+        for (Map.Entry<Integer, List<Restaurant>> entry : byPincode.entrySet()) {
+            keys[i] = entry.getKey();
+            areas[i++] = Area.of(entry.getValue());
+        }
+        snapshot = new Snapshot(keys, areas);
+        ready = true;
+    }
+
+    /**
+     * Add, replace or (when inactive) remove a single restaurant
+     */
+    public synchronized void update(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        int[] previous = pincodesByRestaurant.getOrDefault(restaurant.getId(), new int[0]);
+        int[] current = pincodesOf(restaurant);
+        if (current.length > 0) {
+            pincodesByRestaurant.put(restaurant.getId(), current);
+        } else {
+            pincodesByRestaurant.remove(restaurant.getId());
+        }
+
+        TreeSet<Integer> affected = new TreeSet<>();
+        Arrays.stream(previous).forEach(affected::add);
+        Arrays.stream(current).forEach(affected::add);
+
+        Snapshot base = snapshot;
+        TreeMap<Integer, Area> changed = new TreeMap<>();
+        for (int pincode : affected) {
+            List<Restaurant> restaurants = new ArrayList<>();
+            Area area = base.get(pincode);
+            if (area != null) {
+                for (Restaurant listed : area.restaurants) {
+                    if (!listed.getId().equals(restaurant.getId())) {
+                        restaurants.add(listed);
+                    }
+                }
+            }
+            if (Arrays.binarySearch(current, pincode) >= 0) {
+                restaurants.add(restaurant);
+            }
+            changed.put(pincode, restaurants.isEmpty() ? null : Area.of(restaurants));
+        }
+        snapshot = base.with(changed);
+    }
+
+    /**
+     * Whether a pincode can be answered from the index
+     */
+    public boolean covers(String pincode) {
+        return ready && parsePincode(pincode) >= 0;
+    }
+
+    /**
+     * Active restaurants delivering to a pincode with a window for any meal in the mask, best rated first.
+     * ANY_MEAL returns every active restaurant delivering there.
+     */
+    public List<Restaurant> find(String pincode, int mealMask) {
+        int key = parsePincode(pincode);
+        Area area = key < 0 ? null : snapshot.get(key);
+        if (area == null) {
+            return Collections.emptyList();
+        }
+        List<Restaurant> restaurants = new ArrayList<>(area.restaurants.length);
+        for (int i = 0; i < area.restaurants.length; i++) {
+            if (mealMask == ANY_MEAL || (area.mealMasks[i] & mealMask) != 0) {
+                restaurants.add(area.restaurants[i]);
+            }
+        }
+        return restaurants;
+    }
+
+    /**
+     * Bitmask of the meal types a restaurant has a delivery window for
+     */
+    public static int mealMaskOf(Restaurant restaurant) {
+        int mask = 0;
+        if (restaurant.getBreakfastWindow() != null) {
+            mask |= 1 << Order.MealType.BREAKFAST.ordinal();
+        }
+        if (restaurant.getLunchWindow() != null) {
+            mask |= 1 << Order.MealType.LUNCH.ordinal();
+        }
+        if (restaurant.getDinnerWindow() != null) {
+            mask |= 1 << Order.MealType.DINNER.ordinal();
+        }
+        return mask;
+    }
+
+    private static int[] pincodesOf(Restaurant restaurant) {
+        if (!restaurant.isActive() || restaurant.getDeliveryAreas() == null) {
+            return new int[0];
+        }
+        return restaurant.getDeliveryAreas().stream()
+                .mapToInt(DeliveryAreaIndex::parsePincode)
+                .filter(pincode -> pincode >= 0)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    // Numeric pincode, or -1 when it cannot be keyed as an int
+    private static int parsePincode(String pincode) {
+        if (pincode == null) {
+            return -1;
+        }
+        String trimmed = pincode.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (!Character.isDigit(trimmed.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(trimmed);
+    }
+
+    // Inner class holding the sorted pincodes and their restaurants
+    private static class Snapshot {
+        private final int[] pincodes;
+        private final Area[] areas;
+
+        Snapshot(int[] pincodes, Area[] areas) {
+            this.pincodes = pincodes;
+            this.areas = areas;
+        }
+
+        Area get(int pincode) {
+            int index = Arrays.binarySearch(pincodes, pincode);
+            return index >= 0 ? areas[index] : null;
+        }
+
+        // Copy with the given rows replaced, added or (null area) removed
+        Snapshot with(TreeMap<Integer, Area> changed) {
+            int[] keys = new int[pincodes.length + changed.size()];
+            Area[] values = new Area[pincodes.length + changed.size()];
+            int size = 0;
+            int i = 0;
+            for (Map.Entry<Integer, Area> entry : changed.entrySet()) {
+                int pincode = entry.getKey();
+                while (i < pincodes.length && pincodes[i] < pincode) {
+                    keys[size] = pincodes[i];
+                    values[size++] = areas[i++];
+                }
+                if (i < pincodes.length && pincodes[i] == pincode) {
+                    i++;
+                }
+                if (entry.getValue() != null) {
+                    keys[size] = pincode;
+                    values[size++] = entry.getValue();
+                }
+            }
+            while (i < pincodes.length) {
+                keys[size] = pincodes[i];
+                values[size++] = areas[i++];
+            }
+            return new Snapshot(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+        }
+    }
+
+    // Inner class for the restaurants of one pincode
+    private static class Area {
+        private final Restaurant[] restaurants;
+        private final int[] mealMasks;
+
+        Area(Restaurant[] restaurants, int[] mealMasks) {
+            this.restaurants = restaurants;
+            this.mealMasks = mealMasks;
+        }
+
+        static Area of(List<Restaurant> restaurants) {
+            Restaurant[] sorted = restaurants.toArray(new Restaurant[0]);
+            Arrays.sort(sorted, BY_RATING);
+            int[] masks = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                masks[i] = mealMaskOf(sorted[i]);
+            }
+            return new Area(sorted, masks);
+        }
+    }
+}
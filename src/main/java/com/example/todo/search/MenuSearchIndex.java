@@ -0,0 +1,427 @@
+package com.example.todo.search;
+
+import com.example.todo.model.MenuItem;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index over menu item name, tags, category and description.
+ * Each field keeps token postings as bitsets of document numbers, the vocabulary is kept
+ * sorted for prefix expansion of the word being typed, and a trigram index over the
+ * vocabulary finds terms within a small edit distance for typo tolerance. Documents are
+ * replaced individually on every menu write made through this instance; a periodic full reload
+ * picks up writes made elsewhere. Updates arriving while a reload reads its snapshot are
+ * buffered and re-applied on top of it, so the reload cannot undo them.
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final int NAME = 0;
+    private static final int TAGS = 1;
+    private static final int CATEGORY = 2;
+    private static final int DESCRIPTION = 3;
+    private static final double[] FIELD_WEIGHTS = {3.0, 2.0, 2.0, 1.0};
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.8;
+    private static final double FUZZY_MATCH = 0.5;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_EXPANSIONS = 50;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes reloads so only one snapshot is being read at a time
+    private final Object reloadLock = new Object();
+
+    // Document numbers are reused after removal to keep the bitsets dense
+    private final Map<String, Integer> docNumbers = new HashMap<>();
+    private final List<MenuItem> docs = new ArrayList<>();
+    private final List<List<Set<String>>> docTerms = new ArrayList<>();
+    private final Deque<Integer> freeDocNumbers = new ArrayDeque<>();
+
+    private final List<Map<String, BitSet>> postings = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+    // Term -> number of (field, document) pairs using it
+    private final TreeMap<String, Integer> vocabulary = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    private final Map<String, BitSet> byRestaurant = new HashMap<>();
+    private final Map<String, BitSet> byMealType = new HashMap<>();
+    private final BitSet available = new BitSet();
+
+    // Updates made while a reload reads its snapshot; null when no reload is running
+    private List<MenuItem> pendingUpdates;
+
+    private volatile boolean ready;
+
+    /**
+     * Replace the whole index contents
+     */
+    public void rebuild(Iterable<MenuItem> menuItems) {
+        reload(() -> menuItems);
+    }
+
+    /**
+     * Replace the whole index contents with a snapshot read by the loader, then re-apply every
+     * update that arrived while the snapshot was being read
+     */
+    public void reload(Supplier<? extends Iterable<MenuItem>> loader) {
+        synchronized (reloadLock) {
+            setPendingUpdates(new ArrayList<>());
+            Iterable<MenuItem> snapshot;
+            try {
+                snapshot = loader.get();
+            } catch (RuntimeException e) {
+                setPendingUpdates(null);
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                List<MenuItem> buffered = pendingUpdates;
+                pendingUpdates = null;
+                replaceAll(snapshot);
+                for (MenuItem menuItem : buffered) {
+                    remove(menuItem.getId());
+                    add(menuItem);
+                }
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Add or replace a single menu item
+     */
+    public void update(MenuItem menuItem) {
+        if (menuItem == null || menuItem.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(menuItem.getId());
+            add(menuItem);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(menuItem);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the initial build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of indexed menu items
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search. Every query word must match a term exactly, as a prefix (last word only)
+     * or within a small edit distance; restaurantId and mealType are optional filters.
+     */
+    public List<MenuItem> search(String query, String restaurantId, String mealType, boolean availableOnly, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = null;
+            Map<Integer, Double> scores = new HashMap<>();
+
+            for (int i = 0; i < words.size(); i++) {
+                Map<String, Double> terms = expand(words.get(i), i == words.size() - 1);
+                Map<Integer, Double> wordScores = new HashMap<>();
+                for (Map.Entry<String, Double> term : terms.entrySet()) {
+                    for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                        BitSet docsWithTerm = postings.get(field).get(term.getKey());
+                        if (docsWithTerm == null) {
+                            continue;
+                        }
+                        double score = term.getValue() * FIELD_WEIGHTS[field];
+                        for (int doc = docsWithTerm.nextSetBit(0); doc >= 0; doc = docsWithTerm.nextSetBit(doc + 1)) {
+                            wordScores.merge(doc, score, Math::max);
+                        }
+                    }
+                }
+
+                BitSet wordDocs = new BitSet();
+                wordScores.keySet().forEach(wordDocs::set);
+                if (candidates == null) {
+                    candidates = wordDocs;
+                } else {
+                    candidates.and(wordDocs);
+                }
+                if (candidates.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                wordScores.forEach((doc, score) -> scores.merge(doc, score, Double::sum));
+            }
+
+            if (restaurantId != null) {
+                candidates.and(byRestaurant.getOrDefault(restaurantId, new BitSet()));
+            }
+            if (mealType != null) {
+                candidates.and(byMealType.getOrDefault(mealType.toUpperCase(Locale.ROOT), new BitSet()));
+            }
+            if (availableOnly) {
+                candidates.and(available);
+            }
+
+            List<Integer> ranked = new ArrayList<>(candidates.cardinality());
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                ranked.add(doc);
+            }
+            ranked.sort(Comparator.<Integer>comparingDouble(doc -> -scores.get(doc))
+                    .thenComparing(doc -> docs.get(doc).getName(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+            List<MenuItem> results = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                results.add(docs.get(ranked.get(i)));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replaceAll(Iterable<MenuItem> menuItems) {
+        docNumbers.clear();
+        docs.clear();
+        docTerms.clear();
+        freeDocNumbers.clear();
+        postings.forEach(Map::clear);
+        vocabulary.clear();
+        trigrams.clear();
+        byRestaurant.clear();
+        byMealType.clear();
+        available.clear();
+        for (MenuItem menuItem : menuItems) {
+            add(menuItem);
+        }
+    }
+
+    private void setPendingUpdates(List<MenuItem> updates) {
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = updates;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(MenuItem menuItem) {
+        int doc = freeDocNumbers.isEmpty() ? docs.size() : freeDocNumbers.pop();
+        List<Set<String>> terms = List.of(
+                new LinkedHashSet<>(tokenize(menuItem.getName())),
+                new LinkedHashSet<>(tokenize(menuItem.getTags() == null ? null : String.join(" ", menuItem.getTags()))),
+                new LinkedHashSet<>(tokenize(menuItem.getCategory())),
+                new LinkedHashSet<>(tokenize(menuItem.getDescription())));
+
+        if (doc == docs.size()) {
+            docs.add(menuItem);
+            docTerms.add(terms);
+        } else {
+            docs.set(doc, menuItem);
+            docTerms.set(doc, terms);
+        }
+        docNumbers.put(menuItem.getId(), doc);
+
+        for (int field = 0; field < terms.size(); field++) {
+            for (String term : terms.get(field)) {
+                postings.get(field).computeIfAbsent(term, t -> new BitSet()).set(doc);
+                if (vocabulary.merge(term, 1, Integer::sum) == 1) {
+                    for (String gram : trigramsOf(term)) {
+                        trigrams.computeIfAbsent(gram, g -> new LinkedHashSet<>()).add(term);
+                    }
+                }
+            }
+        }
+
+        if (menuItem.getRestaurantId() != null) {
+            byRestaurant.computeIfAbsent(menuItem.getRestaurantId(), id -> new BitSet()).set(doc);
+        }
+        if (menuItem.getMealTypes() != null) {
+            for (String mealType : menuItem.getMealTypes()) {
+                byMealType.computeIfAbsent(mealType.toUpperCase(Locale.ROOT), m -> new BitSet()).set(doc);
+            }
+        }
+        available.set(doc, menuItem.isAvailable());
+    }
+
+    private void remove(String menuItemId) {
+        Integer doc = docNumbers.remove(menuItemId);
+        if (doc == null) {
+            return;
+        }
+        MenuItem menuItem = docs.get(doc);
+        List<Set<String>> terms = docTerms.get(doc);
+
+        for (int field = 0; field < terms.size(); field++) {
+            for (String term : terms.get(field)) {
+                clear(postings.get(field), term, doc);
+                if (vocabulary.merge(term, -1, Integer::sum) == 0) {
+                    vocabulary.remove(term);
+                    for (String gram : trigramsOf(term)) {
+                        Set<String> gramTerms = trigrams.get(gram);
+                        if (gramTerms != null && gramTerms.remove(term) && gramTerms.isEmpty()) {
+                            trigrams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (menuItem.getRestaurantId() != null) {
+            clear(byRestaurant, menuItem.getRestaurantId(), doc);
+        }
+        if (menuItem.getMealTypes() != null) {
+            for (String mealType : menuItem.getMealTypes()) {
+                clear(byMealType, mealType.toUpperCase(Locale.ROOT), doc);
+            }
+        }
+        available.clear(doc);
+
+        docs.set(doc, null);
+        docTerms.set(doc, null);
+        freeDocNumbers.push(doc);
+    }
+
+    private static void clear(Map<String, BitSet> index, String key, int doc) {
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(doc);
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    // Vocabulary terms matching a query word, with their match weight
+    private Map<String, Double> expand(String word, boolean isLastWord) {
+        Map<String, Double> terms = new LinkedHashMap<>();
+        if (vocabulary.containsKey(word)) {
+            terms.put(word, EXACT_MATCH);
+        }
+
+        // The word being typed is matched as a prefix
+        if (isLastWord && word.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : vocabulary.subMap(word, false, word + Character.MAX_VALUE, false).keySet()) {
+                if (terms.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                terms.putIfAbsent(term, PREFIX_MATCH);
+            }
+        }
+
+        if (word.length() >= MIN_FUZZY_LENGTH) {
+            int maxDistance = word.length() >= 8 ? 2 : 1;
+            Map<String, Integer> sharedGrams = new HashMap<>();
+            List<String> grams = trigramsOf(word);
+            for (String gram : grams) {
+                Set<String> gramTerms = trigrams.get(gram);
+                if (gramTerms != null) {
+                    gramTerms.forEach(term -> sharedGrams.merge(term, 1, Integer::sum));
+                }
+            }
+            // Each edit destroys at most three trigrams
+            int minShared = grams.size() - 3 * maxDistance;
+            sharedGrams.forEach((term, shared) -> {
+                if (shared >= minShared && terms.size() < MAX_EXPANSIONS && !terms.containsKey(term)
+                        && Math.abs(term.length() - word.length()) <= maxDistance
+                        && editDistance(word, term, maxDistance) <= maxDistance) {
+                    terms.put(term, FUZZY_MATCH);
+                }
+            });
+        }
+        return terms;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> trigramsOf(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Optimal string alignment distance, giving up once it exceeds maxDistance
+    static int editDistance(String a, String b, int maxDistance) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
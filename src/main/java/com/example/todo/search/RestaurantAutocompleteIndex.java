@@ -0,0 +1,175 @@
+package com.example.todo.search;
+
+import com.example.todo.model.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Autocomplete over active restaurant names.
+ * Every word start of a normalized name ("pizza hut" also as "hut") is a key in one sorted array,
+ * so a prefix lookup is a binary search followed by a scan of the matching range. The array is
+ * immutable and swapped on write; a changed restaurant is merged into a copy of the current
+ * array rather than re-sorting everything.
+ */
+@Component
+public class RestaurantAutocompleteIndex {
+
+    private static final Comparator<Suggestion> BY_RATING = Comparator
+            .comparingDouble(Suggestion::getRating).reversed()
+            .thenComparing(Suggestion::getName, String.CASE_INSENSITIVE_ORDER);
+
+    private volatile Entry[] entries = new Entry[0];
+    private volatile boolean ready;
+
+    /**
+     * Replace the whole index contents
+     */
+    public synchronized void rebuild(Iterable<Restaurant> restaurants) {
+        List<Entry> rebuilt = new ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            rebuilt.addAll(entriesOf(restaurant));
+        }
+        Entry[] sorted = rebuilt.toArray(new Entry[0]);
+        Arrays.sort(sorted);
+        entries = sorted;
+        ready = true;
+    }
+
+    /**
+     * Add, replace or (when inactive) remove a single restaurant
+     */
+    public synchronized void update(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        List<Entry> added = entriesOf(restaurant);
+        Collections.sort(added);
+
+        Entry[] current = entries;
+        Entry[] merged = new Entry[current.length + added.size()];
+        int size = 0;
+        int next = 0;
+        for (Entry entry : current) {
+            if (entry.suggestion.id.equals(restaurant.getId())) {
+                continue;
+            }
+            while (next < added.size() && added.get(next).compareTo(entry) < 0) {
+                merged[size++] = added.get(next++);
+            }
+            merged[size++] = entry;
+        }
+        while (next < added.size()) {
+            merged[size++] = added.get(next++);
+        }
+        entries = Arrays.copyOf(merged, size);
+    }
+
+    /**
+     * Whether the initial build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Restaurants with a name word starting with the query, optionally limited to those delivering
+     * to a pincode, best rated first
+     */
+    public List<Suggestion> complete(String query, String pincode, int limit) {
+        String prefix = String.join(" ", MenuSearchIndex.tokenize(query));
+        if (prefix.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Entry[] snapshot = entries;
+        Set<Suggestion> matches = new LinkedHashSet<>();
+        for (int i = lowerBound(snapshot, prefix); i < snapshot.length && snapshot[i].key.startsWith(prefix); i++) {
+            Suggestion suggestion = snapshot[i].suggestion;
+            if (pincode == null || suggestion.deliveryAreas.contains(pincode)) {
+                matches.add(suggestion);
+            }
+        }
+
+        List<Suggestion> ranked = new ArrayList<>(matches);
+        ranked.sort(BY_RATING);
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
+
+    private static int lowerBound(Entry[] snapshot, String prefix) {
+        int low = 0;
+        int high = snapshot.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (snapshot[mid].key.compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<Entry> entriesOf(Restaurant restaurant) {
+        List<String> words = MenuSearchIndex.tokenize(restaurant.getName());
+        if (!restaurant.isActive() || words.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Suggestion suggestion = new Suggestion(restaurant);
+        List<Entry> keys = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(new Entry(String.join(" ", words.subList(i, words.size())), suggestion));
+        }
+        return keys;
+    }
+
+    // Inner class for one sorted key
+    private static class Entry implements Comparable<Entry> {
+        private final String key;
+        private final Suggestion suggestion;
+
+        Entry(String key, Suggestion suggestion) {
+            this.key = key;
+            this.suggestion = suggestion;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : suggestion.id.compareTo(other.suggestion.id);
+        }
+    }
+
+    // Inner class for an autocomplete suggestion
+    public static class Suggestion {
+        private final String id;
+        private final String name;
+        private final double rating;
+        private final String imageUrl;
+        private final Set<String> deliveryAreas;
+
+        Suggestion(Restaurant restaurant) {
+            this.id = restaurant.getId();
+            this.name = restaurant.getName();
+            this.rating = restaurant.getRating();
+            this.imageUrl = restaurant.getImageUrl();
+            this.deliveryAreas = restaurant.getDeliveryAreas() == null
+                    ? Collections.emptySet() : Set.copyOf(restaurant.getDeliveryAreas());
+        }
+
+        // Getters
+        public String getId() { return id; }
+
+        public String getName() { return name; }
+
+        public double getRating() { return rating; }
+
+        public String getImageUrl() { return imageUrl; }
+    }
+}
@@ -1,40 +1,87 @@
 package com.example.todo.service;
 
+import com.example.todo.cache.JsonResponseCache;
+import com.example.todo.cache.MenuCatalogCache;
+import com.example.todo.cache.ResourceVersions;
+import com.example.todo.config.ThreadingConfig;
 import com.example.todo.model.MenuItem;
 import com.example.todo.model.Order;
 import com.example.todo.repository.MenuItemRepository;
+import com.example.todo.search.MenuSearchIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 public class MenuService {
     
+    private static final Logger logger = LoggerFactory.getLogger(MenuService.class);
+    
+    private static final Set<String> SORTABLE_FIELDS = Set.of("price", "name", "spiceLevel", "calories", "preparationTime");
+    private static final int MAX_CRITERIA_RESULTS = 500;
+    private static final int DEFAULT_SEARCH_RESULTS = 50;
+    private static final int MAX_SEARCH_RESULTS = 200;
+    
     @Autowired
     private MenuItemRepository menuItemRepository;
     
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+    
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+    
+    @Value("${menu.search.reload-minutes:15}")
+    private long searchReloadMinutes;
+    
+    private final ScheduledExecutorService searchIndexReloader =
+            Executors.newSingleThreadScheduledExecutor(ThreadingConfig.daemonThreads("menu-search-reload-"));
+    
     /**
      * Create a new menu item
      */
     public MenuItem createMenuItem(MenuItem menuItem) {
-        return menuItemRepository.save(menuItem);
+        MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+        onMenuChanged(savedMenuItem);
+        return savedMenuItem;
     }
     
     /**
      * Get all menu items for a restaurant
      */
     public List<MenuItem> getMenuItemsByRestaurant(String restaurantId) {
-        return menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId);
+        return menuCatalogCache.get(restaurantId, "available",
+                () -> menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId));
     }
     
     /**
      * Get menu items by restaurant and meal type
      */
     public List<MenuItem> getMenuItemsByRestaurantAndMealType(String restaurantId, Order.MealType mealType) {
-        return menuItemRepository.findByRestaurantIdAndMealTypesContaining(restaurantId, mealType.toString());
+        return menuCatalogCache.get(restaurantId, "meal:" + mealType,
+                () -> menuItemRepository.findByRestaurantIdAndMealTypesContaining(restaurantId, mealType.toString()));
     }
     
     /**
@@ -62,14 +109,60 @@ public class MenuService {
      * Search menu items by name
      */
     public List<MenuItem> searchMenuItemsByName(String name) {
-        return menuItemRepository.findByNameContainingIgnoreCase(name);
+        return searchMenuItems(name, null, null, null);
     }
     
     /**
      * Search menu items by restaurant and name
      */
     public List<MenuItem> searchMenuItemsByRestaurantAndName(String restaurantId, String name) {
-        return menuItemRepository.findByRestaurantIdAndNameContainingIgnoreCase(restaurantId, name);
+        return searchMenuItems(name, restaurantId, null, null);
+    }
+    
+    /**
+     * Ranked, typo-tolerant search over name, tags, category and description.
+     * Served from the in-memory index; falls back to a name regex until the index is built.
+     */
+    public List<MenuItem> searchMenuItems(String query, String restaurantId, String mealType, Integer limit) {
+        int maxResults = limit == null ? DEFAULT_SEARCH_RESULTS : Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        if (menuSearchIndex.isReady()) {
+            return menuSearchIndex.search(query, restaurantId, mealType, false, maxResults);
+        }
+        
+        List<MenuItem> menuItems = restaurantId != null
+                ? menuItemRepository.findByRestaurantIdAndNameContainingIgnoreCase(restaurantId, query)
+                : menuItemRepository.findByNameContainingIgnoreCase(query);
+        return menuItems.stream()
+                .filter(menuItem -> mealType == null || (menuItem.getMealTypes() != null
+                        && menuItem.getMealTypes().stream().anyMatch(mealType::equalsIgnoreCase)))
+                .limit(maxResults)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Convert legacy string prices and load every menu item into the search index once the application is up,
+     * then reload the index periodically so that writes made by other instances converge
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        menuItemRepository.convertLegacyPrices();
+        menuSearchIndex.reload(menuItemRepository::findAll);
+        searchIndexReloader.scheduleWithFixedDelay(this::reloadSearchIndex,
+                searchReloadMinutes, searchReloadMinutes, TimeUnit.MINUTES);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        searchIndexReloader.shutdownNow();
+    }
+    
+    private void reloadSearchIndex() {
+        try {
+            menuSearchIndex.reload(menuItemRepository::findAll);
+        } catch (RuntimeException e) {
+            // A failed reload keeps the current index and must not cancel the schedule
+            logger.warn("Reloading the menu search index failed", e);
+        }
     }
     
     /**
@@ -172,7 +265,9 @@ public class MenuService {
                     menuItem.setServingSize(updatedMenuItem.getServingSize());
                     menuItem.setCustomizationOptions(updatedMenuItem.getCustomizationOptions());
                     
-                    return menuItemRepository.save(menuItem);
+                    MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+                    onMenuChanged(savedMenuItem);
+                    return savedMenuItem;
                 })
                 .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
     }
@@ -185,6 +280,7 @@ public class MenuService {
                 .ifPresent(menuItem -> {
                     menuItem.setAvailable(false);
                     menuItemRepository.save(menuItem);
+                    onMenuChanged(menuItem);
                 });
     }
     
@@ -195,76 +291,89 @@ public class MenuService {
         return menuItemRepository.findById(id)
                 .map(menuItem -> {
                     menuItem.setAvailable(!menuItem.isAvailable());
-                    return menuItemRepository.save(menuItem);
+                    MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+                    onMenuChanged(savedMenuItem);
+                    return savedMenuItem;
                 })
                 .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
     }
     
     /**
-     * Get menu items by multiple criteria
+     * Get menu items by multiple criteria.
+     * Every criterion is pushed down into a single MongoDB query, together with the optional sort and limit.
      */
     public List<MenuItem> getMenuItemsByCriteria(String restaurantId, List<String> mealTypes, 
                                                 BigDecimal minPrice, BigDecimal maxPrice, 
                                                 String category, List<String> tags, 
                                                 Boolean isVegetarian, Boolean isVegan, 
-                                                Boolean isSpicy, Integer spiceLevel) {
+                                                Boolean isSpicy, Integer spiceLevel,
+                                                String sortBy, String sortDirection, Integer limit) {
         
-        List<MenuItem> menuItems;
+        Criteria criteria = new Criteria();
         
         if (restaurantId != null) {
-            if (mealTypes != null && !mealTypes.isEmpty()) {
-                menuItems = menuItemRepository.findAvailableMenuItemsByRestaurantAndMealTypes(restaurantId, mealTypes);
-            } else {
-                menuItems = menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId);
-            }
-        } else {
-            menuItems = menuItemRepository.findAll();
+            criteria.and("restaurantId").is(restaurantId).and("isAvailable").is(true);
         }
         
-        // Apply filters
-        if (minPrice != null && maxPrice != null) {
-            menuItems = menuItems.stream()
-                    .filter(item -> item.getPrice().compareTo(minPrice) >= 0 && item.getPrice().compareTo(maxPrice) <= 0)
-                    .toList();
+        if (mealTypes != null && !mealTypes.isEmpty()) {
+            criteria.and("mealTypes").in(mealTypes);
+        }
+        
+        if (minPrice != null || maxPrice != null) {
+            Criteria price = criteria.and("price");
+            if (minPrice != null) {
+                price.gte(minPrice);
+            }
+            if (maxPrice != null) {
+                price.lte(maxPrice);
+            }
         }
         
         if (category != null) {
-            menuItems = menuItems.stream()
-                    .filter(item -> category.equals(item.getCategory()))
-                    .toList();
+            criteria.and("category").is(category);
         }
         
         if (tags != null && !tags.isEmpty()) {
-            menuItems = menuItems.stream()
-                    .filter(item -> item.getTags() != null && item.getTags().stream().anyMatch(tags::contains))
-                    .toList();
+            criteria.and("tags").in(tags);
         }
         
         if (isVegetarian != null) {
-            menuItems = menuItems.stream()
-                    .filter(item -> item.isVegetarian() == isVegetarian)
-                    .toList();
+            criteria.and("isVegetarian").is(isVegetarian);
         }
         
         if (isVegan != null) {
-            menuItems = menuItems.stream()
-                    .filter(item -> item.isVegan() == isVegan)
-                    .toList();
+            criteria.and("isVegan").is(isVegan);
         }
         
         if (isSpicy != null) {
-            menuItems = menuItems.stream()
-                    .filter(item -> item.isSpicy() == isSpicy)
-                    .toList();
+            criteria.and("isSpicy").is(isSpicy);
         }
         
         if (spiceLevel != null) {
-            menuItems = menuItems.stream()
-                    .filter(item -> item.getSpiceLevel() == spiceLevel)
-                    .toList();
+            criteria.and("spiceLevel").is(spiceLevel);
+        }
+        
+        Sort sort = Sort.unsorted();
+        if (sortBy != null) {
+            if (!SORTABLE_FIELDS.contains(sortBy)) {
+                throw new IllegalArgumentException("Menu items cannot be sorted by " + sortBy);
+            }
+            Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+            sort = Sort.by(direction, sortBy);
         }
         
-        return menuItems;
+        int maxResults = limit == null ? 0 : Math.max(1, Math.min(limit, MAX_CRITERIA_RESULTS));
+        return menuItemRepository.findByCriteria(criteria, sort, maxResults);
+    }
+    
+    /**
+     * Invalidate everything derived from a restaurant's menu after a write
+     */
+    private void onMenuChanged(MenuItem menuItem) {
+        menuCatalogCache.invalidate(menuItem.getRestaurantId());
+        jsonResponseCache.invalidate(JsonResponseCache.menuGroup(menuItem.getRestaurantId()));
+        menuSearchIndex.update(menuItem);
+        resourceVersions.menuChanged(menuItem.getRestaurantId());
     }
     
     /**
@@ -0,0 +1,252 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Order;
+import com.example.todo.model.OrderSlotCounter;
+import com.example.todo.model.Restaurant;
+import com.example.todo.repository.OrderSlotCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Admission control for kitchen capacity per restaurant, meal type and delivery date.
+ * The authoritative count lives in a shared Mongo counter that is only ever incremented
+ * conditionally, so admitting an order costs one findAndModify on that counter; a batch costs one
+ * per slot. Only rejections are served from memory: once a slot is known to be full, further orders
+ * for it are rejected without a round trip until the next recheck or release.
+ */
+@Service
+public class OrderCapacityService {
+
+    // Purge per-slot state of past dates once this many slots are tracked
+    private static final int SLOT_PURGE_THRESHOLD = 10_000;
+
+    // Tries at reserving the rest of a slot for a batch that did not fit as a whole
+    private static final int PARTIAL_RESERVE_ATTEMPTS = 3;
+
+    @Autowired
+    private OrderSlotCounterRepository orderSlotCounterRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${order.capacity.default-per-slot:0}")
+    private int defaultCapacity;
+
+    @Value("${order.capacity.full-recheck-ms:2000}")
+    private long fullRecheckMillis;
+
+    private final Map<String, SlotState> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Reserve capacity for one order, or throw SlotFullException
+     */
+    public void reserve(Order order, Restaurant restaurant) {
+        int capacity = getCapacity(restaurant, order.getMealType());
+        if (capacity > 0 && reserve(order.getRestaurantId(), order.getMealType(), slotDate(order), 1, capacity) == 0) {
+            throw new SlotFullException(order.getRestaurantId(), order.getMealType(), slotDate(order));
+        }
+    }
+
+    /**
+     * Reserve capacity for a batch of orders, one counter update per slot where possible.
+     * Returns whether each order (by position) was admitted.
+     */
+    public boolean[] reserveAll(List<Order> orders, Function<String, Restaurant> restaurantLookup) {
+        boolean[] admitted = new boolean[orders.size()];
+        Map<String, List<Integer>> positionsBySlot = new LinkedHashMap<>();
+        for (int position = 0; position < orders.size(); position++) {
+            Order order = orders.get(position);
+            String slotId = OrderSlotCounter.slotId(order.getRestaurantId(), order.getMealType(), slotDate(order));
+            positionsBySlot.computeIfAbsent(slotId, id -> new ArrayList<>()).add(position);
+        }
+
+        for (List<Integer> positions : positionsBySlot.values()) {
+            Order first = orders.get(positions.get(0));
+            int capacity = getCapacity(restaurantLookup.apply(first.getRestaurantId()), first.getMealType());
+            int granted = capacity > 0
+                    ? reserve(first.getRestaurantId(), first.getMealType(), slotDate(first), positions.size(), capacity)
+                    : positions.size();
+            // Orders are admitted in submission order up to the granted count
+            for (int i = 0; i < granted; i++) {
+                admitted[positions.get(i)] = true;
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Give back the capacity held by an order that will not be cooked
+     */
+    public void release(Order order) {
+        if (order.getRestaurantId() == null || order.getMealType() == null) {
+            return;
+        }
+        LocalDate date = slotDate(order);
+        orderSlotCounterRepository.release(order.getRestaurantId(), order.getMealType(), date, 1);
+        SlotState state = slots.get(OrderSlotCounter.slotId(order.getRestaurantId(), order.getMealType(), date));
+        if (state != null) {
+            state.fullUntil = 0;
+        }
+    }
+
+    /**
+     * Get live occupancy of every meal slot a restaurant serves on a delivery date (today if null)
+     */
+    public List<SlotOccupancy> getOccupancy(Restaurant restaurant, LocalDate deliveryDate) {
+        LocalDate date = deliveryDate != null ? deliveryDate : LocalDate.now(clock);
+        Map<Order.MealType, Integer> counts = new LinkedHashMap<>();
+        for (OrderSlotCounter counter : orderSlotCounterRepository.findByRestaurantIdAndDate(restaurant.getId(), date)) {
+            counts.put(counter.getMealType(), counter.getCount());
+        }
+
+        List<SlotOccupancy> occupancy = new ArrayList<>();
+        for (Order.MealType mealType : Order.MealType.values()) {
+            if (window(restaurant, mealType) != null) {
+                occupancy.add(new SlotOccupancy(mealType, date, getCapacity(restaurant, mealType), counts.getOrDefault(mealType, 0)));
+            }
+        }
+        return occupancy;
+    }
+
+    /**
+     * Orders a restaurant can take for one delivery of a meal; 0 or less means unlimited
+     */
+    public int getCapacity(Restaurant restaurant, Order.MealType mealType) {
+        Restaurant.DeliveryTimeWindow window = restaurant == null ? null : window(restaurant, mealType);
+        return window != null && window.getMaxOrders() != null ? window.getMaxOrders() : defaultCapacity;
+    }
+
+    /**
+     * Delivery date of an order: the first occurrence of its scheduled delivery time after it was placed
+     */
+    LocalDate slotDate(Order order) {
+        LocalDateTime orderTime = order.getOrderTime() != null ? order.getOrderTime() : LocalDateTime.now(clock);
+        LocalTime deliveryTime = order.getScheduledDeliveryTime();
+        if (deliveryTime == null || orderTime.toLocalTime().isBefore(deliveryTime)) {
+            return orderTime.toLocalDate();
+        }
+        return orderTime.toLocalDate().plusDays(1);
+    }
+
+    private int reserve(String restaurantId, Order.MealType mealType, LocalDate date, int count, int capacity) {
+        SlotState state = slotState(OrderSlotCounter.slotId(restaurantId, mealType, date), date);
+        long now = clock.millis();
+        if (now < state.fullUntil) {
+            return 0;
+        }
+
+        LocalDateTime expiresAt = date.plusDays(2).atStartOfDay();
+        int slotCount = orderSlotCounterRepository.tryReserve(restaurantId, mealType, date, count, capacity, expiresAt);
+        int granted = slotCount >= 0 ? count : 0;
+
+        // The whole group did not fit; take what is left in one more update per attempt, re-reading
+        // the counter when another instance took the room first
+        for (int attempt = 0; granted == 0 && count > 1 && attempt < PARTIAL_RESERVE_ATTEMPTS; attempt++) {
+            int left = capacity - orderSlotCounterRepository.findById(OrderSlotCounter.slotId(restaurantId, mealType, date))
+                    .map(OrderSlotCounter::getCount)
+                    .orElse(0);
+            if (left <= 0) {
+                slotCount = -1;
+                break;
+            }
+            int partial = Math.min(left, count);
+            slotCount = orderSlotCounterRepository.tryReserve(restaurantId, mealType, date, partial, capacity, expiresAt);
+            if (slotCount >= 0) {
+                granted = partial;
+            }
+        }
+
+        if (slotCount < 0 || slotCount >= capacity) {
+            state.fullUntil = now + fullRecheckMillis;
+        }
+        return granted;
+    }
+
+    private SlotState slotState(String slotId, LocalDate date) {
+        if (slots.size() > SLOT_PURGE_THRESHOLD) {
+            LocalDate today = LocalDate.now(clock);
+            slots.values().removeIf(state -> state.date.isBefore(today));
+        }
+        return slots.computeIfAbsent(slotId, id -> new SlotState(date));
+    }
+
+    private static Restaurant.DeliveryTimeWindow window(Restaurant restaurant, Order.MealType mealType) {
+        switch (mealType) {
+            case BREAKFAST:
+                return restaurant.getBreakfastWindow();
+            case LUNCH:
+                return restaurant.getLunchWindow();
+            case DINNER:
+                return restaurant.getDinnerWindow();
+            default:
+                return null;
+        }
+    }
+
+    // Inner class holding this instance's view of one slot
+    private static class SlotState {
+        private final LocalDate date;
+        private volatile long fullUntil;
+
+        SlotState(LocalDate date) {
+            this.date = date;
+        }
+    }
+
+    // Thrown when a slot has no capacity left
+    public static class SlotFullException extends RuntimeException {
+        public SlotFullException(String restaurantId, Order.MealType mealType, LocalDate date) {
+            super("No capacity left for " + mealType + " on " + date + " at restaurant " + restaurantId);
+        }
+    }
+
+    // Inner class for slot occupancy
+    public static class SlotOccupancy {
+        private Order.MealType mealType;
+        private LocalDate date;
+        private int capacity;
+        private int reserved;
+        private int remaining;
+        private boolean full;
+
+        public SlotOccupancy(Order.MealType mealType, LocalDate date, int capacity, int reserved) {
+            this.mealType = mealType;
+            this.date = date;
+            this.capacity = capacity;
+            this.reserved = reserved;
+            this.remaining = capacity > 0 ? Math.max(0, capacity - reserved) : -1;
+            this.full = capacity > 0 && reserved >= capacity;
+        }
+
+        // Getters and Setters
+        public Order.MealType getMealType() { return mealType; }
+        public void setMealType(Order.MealType mealType) { this.mealType = mealType; }
+
+        public LocalDate getDate() { return date; }
+        public void setDate(LocalDate date) { this.date = date; }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public int getReserved() { return reserved; }
+        public void setReserved(int reserved) { this.reserved = reserved; }
+
+        public int getRemaining() { return remaining; }
+        public void setRemaining(int remaining) { this.remaining = remaining; }
+
+        public boolean isFull() { return full; }
+        public void setFull(boolean full) { this.full = full; }
+    }
+}
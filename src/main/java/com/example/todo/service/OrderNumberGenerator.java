@@ -0,0 +1,87 @@
+package com.example.todo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order number generator.
+ * Each id packs 41 bits of milliseconds since {@link #EPOCH}, a 10-bit node id and a 12-bit
+ * per-millisecond sequence into a positive long, rendered as "ORD" followed by 13 Crockford
+ * base-32 characters. Ids from one node are strictly increasing, and the fixed-width rendering
+ * keeps them sortable as strings. Distinct node ids never collide: an instance either uses the
+ * configured order.number.node-id or leases a free one through {@link OrderNumberNodeLease}.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    public static final String PREFIX = "ORD";
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final Clock clock;
+    private final long nodeBits;
+
+    // Last issued (millis since epoch << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public OrderNumberGenerator(@Value("${order.number.node-id:-1}") int nodeId, Clock clock, OrderNumberNodeLease nodeLease) {
+        this(nodeId < 0 ? nodeLease.acquire(MAX_NODE_ID) : nodeId, clock);
+    }
+
+    public OrderNumberGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order.number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.clock = clock;
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * Generate the next order number
+     */
+    public String next() {
+        return encode(nextId());
+    }
+
+    /**
+     * Generate the next raw id
+     */
+    public long nextId() {
+        long now = (clock.millis() - EPOCH) << SEQUENCE_BITS;
+        while (true) {
+            long last = state.get();
+            // Same (or an earlier, if the clock stepped back) millisecond continues the sequence;
+            // an exhausted sequence rolls into the next millisecond instead of waiting for it
+            long candidate = now > last ? now : last + 1;
+            if (state.compareAndSet(last, candidate)) {
+                long millis = candidate >>> SEQUENCE_BITS;
+                long sequence = candidate & SEQUENCE_MASK;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+            }
+        }
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
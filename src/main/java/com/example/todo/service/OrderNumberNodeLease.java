@@ -0,0 +1,129 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ThreadingConfig;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases an order number node id from MongoDB for instances started without order.number.node-id.
+ * Each leased id is a document in order_number_nodes keyed by the id itself, so the _id index
+ * guarantees that two running instances never hold the same one. The lease is renewed at a third
+ * of its length and released on shutdown; the id of an instance that died becomes free again
+ * once its lease expires.
+ */
+@Component
+public class OrderNumberNodeLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberNodeLease.class);
+
+    private static final String COLLECTION = "order_number_nodes";
+
+    private final MongoTemplate mongoTemplate;
+    private final Clock clock;
+    private final long leaseMillis;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    private ScheduledExecutorService renewer;
+    private int nodeId = -1;
+
+    public OrderNumberNodeLease(MongoTemplate mongoTemplate,
+                                Clock clock,
+                                @Value("${order.number.lease-seconds:60}") long leaseSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.clock = clock;
+        this.leaseMillis = leaseSeconds * 1000;
+    }
+
+    /**
+     * Lease a free node id between 0 and maxNodeId and keep renewing it, or throw IllegalStateException
+     * when every id is held by a running instance
+     */
+    public synchronized int acquire(int maxNodeId) {
+        if (nodeId >= 0) {
+            return nodeId;
+        }
+
+        // Start at a random id so instances booting together do not all contend for the same documents
+        int ids = maxNodeId + 1;
+        int start = ThreadLocalRandom.current().nextInt(ids);
+        for (int i = 0; i < ids; i++) {
+            int candidate = (start + i) % ids;
+            if (tryLease(candidate)) {
+                nodeId = candidate;
+                renewer = Executors.newSingleThreadScheduledExecutor(ThreadingConfig.daemonThreads("order-number-lease-"));
+                long period = Math.max(leaseMillis / 3, 1);
+                renewer.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+                logger.info("Leased order number node id {}", candidate);
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No free order number node id; set order.number.node-id explicitly");
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+        }
+        if (nodeId >= 0) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(nodeId).and("owner").is(owner)), COLLECTION);
+            nodeId = -1;
+        }
+    }
+
+    private boolean tryLease(int candidate) {
+        try {
+            mongoTemplate.insert(new Document("_id", candidate).append("owner", owner).append("expiresAt", expiresAt()),
+                    COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Taken; it is free only if its holder stopped renewing
+            Query expired = Query.query(Criteria.where("_id").is(candidate).and("expiresAt").lt(new Date(clock.millis())));
+            return mongoTemplate.updateFirst(expired, leaseUpdate(), COLLECTION).getModifiedCount() == 1;
+        }
+    }
+
+    private synchronized void renew() {
+        try {
+            if (nodeId < 0) {
+                return;
+            }
+            // Also takes the id back if a missed renewal let it expire, as long as nobody else leased it since
+            Query ours = Query.query(Criteria.where("_id").is(nodeId).orOperator(
+                    Criteria.where("owner").is(owner),
+                    Criteria.where("expiresAt").lt(new Date(clock.millis()))));
+            if (mongoTemplate.updateFirst(ours, leaseUpdate(), COLLECTION).getMatchedCount() == 0) {
+                logger.error("Order number node id {} was leased by another instance; order numbers may collide", nodeId);
+            }
+        } catch (RuntimeException e) {
+            // A failed renewal must not cancel the schedule
+            logger.warn("Renewing the order number node lease failed", e);
+        }
+    }
+
+    private Update leaseUpdate() {
+        return new Update().set("owner", owner).set("expiresAt", expiresAt());
+    }
+
+    private Date expiresAt() {
+        return new Date(clock.millis() + leaseMillis);
+    }
+}
@@ -1,24 +1,58 @@
 package com.example.todo.service;
 
+import com.example.todo.events.OrderEventBroadcaster;
 import com.example.todo.model.Order;
+import com.example.todo.model.OrderSummary;
 import com.example.todo.model.MenuItem;
 import com.example.todo.model.Restaurant;
+import com.example.todo.model.UserOrderStatistics;
 import com.example.todo.repository.OrderRepository;
 import com.example.todo.repository.MenuItemRepository;
 import com.example.todo.repository.RestaurantRepository;
+import com.example.todo.repository.UserOrderStatisticsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    // Statuses an order may be in for each target status: the lifecycle only moves forward,
+    // cancellation is possible until delivery, and refunds follow delivery or cancellation
+    private static final Map<Order.OrderStatus, Set<Order.OrderStatus>> ALLOWED_PREVIOUS_STATUSES = allowedPreviousStatuses();
+    
     @Autowired
     private OrderRepository orderRepository;
     
@@ -31,206 +65,440 @@ public class OrderService {
     @Autowired
     private TimeBasedOrderingService timeBasedOrderingService;
     
+    @Autowired
+    private Clock clock;
+    
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+    
+    @Autowired
+    private UserOrderStatisticsRepository userOrderStatisticsRepository;
+    
+    @Autowired
+    private OrderEventBroadcaster orderEventBroadcaster;
+    
+    @Autowired
+    private OrderCapacityService orderCapacityService;
+    
+    // Held around order writes and their statistics updates; blocks while a statistics rebuild runs on any instance
+    @Autowired
+    private UserOrderStatsRebuildLease userOrderStatsRebuildLease;
+    
     /**
      * Create a new order
      */
     public Order createOrder(Order order) {
-        // Validate ordering is allowed for the meal type
-        if (!timeBasedOrderingService.isOrderingAllowed(order.getMealType())) {
-            throw new RuntimeException("Ordering is not allowed for " + order.getMealType() + " at this time");
+        Restaurant restaurant = validateOrder(order, restaurantId -> restaurantRepository.findById(restaurantId).orElse(null));
+        priceOrder(order, loadMenuItems(List.of(order)));
+        orderCapacityService.reserve(order, restaurant);
+        
+        Order savedOrder;
+        userOrderStatsRebuildLease.writeLock().lock();
+        try {
+            try {
+                savedOrder = orderRepository.save(order);
+            } catch (RuntimeException e) {
+                orderCapacityService.release(order);
+                throw e;
+            }
+            recordStatusChange(savedOrder, null);
+        } finally {
+            userOrderStatsRebuildLease.writeLock().unlock();
+        }
+        orderEventBroadcaster.publish(savedOrder);
+        return savedOrder;
+    }
+    
+    /**
+     * Create a batch of orders (e.g. a corporate lunch account) with one restaurant lookup, one menu lookup,
+     * one capacity reservation per slot and one bulk insert. Each order is validated independently; the result
+     * reports success or failure per submitted position.
+     */
+    public BatchOrderResult createOrders(List<Order> orders) {
+        Set<String> restaurantIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getRestaurantId() != null) {
+                restaurantIds.add(order.getRestaurantId());
+            }
         }
+        Map<String, Restaurant> restaurants = new HashMap<>();
+        restaurantRepository.findAllById(restaurantIds).forEach(restaurant -> restaurants.put(restaurant.getId(), restaurant));
         
-        // Validate restaurant is available for the meal type
-        if (!timeBasedOrderingService.isRestaurantAvailableForMeal(
-                restaurantRepository.findById(order.getRestaurantId()).orElse(null), order.getMealType())) {
-            throw new RuntimeException("Restaurant is not available for " + order.getMealType());
+        List<BatchOrderItemResult> results = new ArrayList<>(orders.size());
+        List<Integer> validatedIndexes = new ArrayList<>(orders.size());
+        List<Order> validatedOrders = new ArrayList<>(orders.size());
+        
+        for (int index = 0; index < orders.size(); index++) {
+            Order order = orders.get(index);
+            results.add(new BatchOrderItemResult(index));
+            try {
+                validateOrder(order, restaurants::get);
+                validatedIndexes.add(index);
+                validatedOrders.add(order);
+            } catch (RuntimeException e) {
+                results.get(index).setError(e.getMessage());
+            }
         }
         
-        // Generate order number
-        order.setOrderNumber(generateOrderNumber());
+        Map<String, MenuItem> menuItems = loadMenuItems(validatedOrders);
+        List<Order> pricedOrders = new ArrayList<>(validatedOrders.size());
+        List<BatchOrderItemResult> pricedResults = new ArrayList<>(validatedOrders.size());
         
-        // Set scheduled delivery time
-        LocalTime deliveryTime = timeBasedOrderingService.getDeliveryTime(order.getMealType());
-        order.setScheduledDeliveryTime(deliveryTime);
+        for (int i = 0; i < validatedOrders.size(); i++) {
+            Order order = validatedOrders.get(i);
+            BatchOrderItemResult result = results.get(validatedIndexes.get(i));
+            try {
+                priceOrder(order, menuItems);
+                pricedOrders.add(order);
+                pricedResults.add(result);
+            } catch (RuntimeException e) {
+                result.setError(e.getMessage());
+            }
+        }
         
-        // Calculate order totals
-        calculateOrderTotals(order);
+        boolean[] admitted = orderCapacityService.reserveAll(pricedOrders, restaurants::get);
+        List<Order> admittedOrders = new ArrayList<>(pricedOrders.size());
+        List<BatchOrderItemResult> admittedResults = new ArrayList<>(pricedOrders.size());
+        for (int i = 0; i < pricedOrders.size(); i++) {
+            if (admitted[i]) {
+                admittedOrders.add(pricedOrders.get(i));
+                admittedResults.add(pricedResults.get(i));
+            } else {
+                pricedResults.get(i).setError("No capacity left for " + pricedOrders.get(i).getMealType());
+            }
+        }
         
-        // Set order time
-        order.setOrderTime(LocalDateTime.now());
+        userOrderStatsRebuildLease.writeLock().lock();
+        try {
+            Map<Integer, String> failures;
+            try {
+                failures = orderRepository.bulkInsert(admittedOrders);
+            } catch (RuntimeException e) {
+                // Nothing is known to be stored, so none of the reservations may outlive the request
+                admittedOrders.forEach(orderCapacityService::release);
+                throw e;
+            }
+            Map<String, Long> ordersByUser = new HashMap<>();
+            for (int position = 0; position < admittedOrders.size(); position++) {
+                Order order = admittedOrders.get(position);
+                BatchOrderItemResult result = admittedResults.get(position);
+                String failure = failures.get(position);
+                if (failure == null) {
+                    result.setSuccess(true);
+                    result.setOrderId(order.getId());
+                    result.setOrderNumber(order.getOrderNumber());
+                    if (order.getUserId() != null) {
+                        ordersByUser.merge(order.getUserId(), 1L, Long::sum);
+                    }
+                    orderEventBroadcaster.publish(order);
+                } else {
+                    orderCapacityService.release(order);
+                    result.setError(failure);
+                }
+            }
+            userOrderStatisticsRepository.incrementTotalOrders(ordersByUser);
+        } finally {
+            userOrderStatsRebuildLease.writeLock().unlock();
+        }
         
-        return orderRepository.save(order);
-    }
-    
-    /**
-     * Get order by ID
-     */
-    public Optional<Order> getOrderById(String id) {
-        return orderRepository.findById(id);
+        return new BatchOrderResult(results);
     }
     
     /**
-     * Get order by order number
+     * Validate an order against the ordering windows and its restaurant, returning the restaurant
      */
-    public Optional<Order> getOrderByOrderNumber(String orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber);
-    }
-    
-    /**
-     * Get orders by user
-     */
-    public List<Order> getOrdersByUser(String userId) {
-        return orderRepository.findByUserId(userId);
+    private Restaurant validateOrder(Order order, Function<String, Restaurant> restaurantLookup) {
+        // Validate ordering is allowed for the meal type
+        if (order.getMealType() == null || !timeBasedOrderingService.isOrderingAllowed(order.getMealType())) {
+            throw new RuntimeException("Ordering is not allowed for " + order.getMealType() + " at this time");
+        }
+        
+        // Validate restaurant is available for the meal type
+        Restaurant restaurant = order.getRestaurantId() == null ? null : restaurantLookup.apply(order.getRestaurantId());
+        if (!timeBasedOrderingService.isRestaurantAvailableForMeal(restaurant, order.getMealType())) {
+            throw new RuntimeException("Restaurant is not available for " + order.getMealType());
+        }
+        return restaurant;
     }
     
     /**
-     * Get orders by restaurant
+     * Load every menu item referenced by the given orders with a single $in query
      */
-    public List<Order> getOrdersByRestaurant(String restaurantId) {
-        return orderRepository.findByRestaurantId(restaurantId);
+    private Map<String, MenuItem> loadMenuItems(List<Order> orders) {
+        Set<String> menuItemIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getItems() != null) {
+                for (Order.OrderItem item : order.getItems()) {
+                    if (item.getMenuItemId() != null) {
+                        menuItemIds.add(item.getMenuItemId());
+                    }
+                }
+            }
+        }
+        
+        Map<String, MenuItem> menuItems = new HashMap<>();
+        if (!menuItemIds.isEmpty()) {
+            menuItemRepository.findAllById(menuItemIds).forEach(menuItem -> menuItems.put(menuItem.getId(), menuItem));
+        }
+        return menuItems;
     }
     
     /**
-     * Get orders by status
+     * Re-price an order from authoritative menu prices and fill in the server-side fields.
+     * Client-supplied item names, prices and totals are overwritten.
      */
-    public List<Order> getOrdersByStatus(Order.OrderStatus status) {
-        return orderRepository.findByStatus(status);
+    private void priceOrder(Order order, Map<String, MenuItem> menuItems) {
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new RuntimeException("Order has no items");
+        }
+        
+        for (Order.OrderItem item : order.getItems()) {
+            MenuItem menuItem = item.getMenuItemId() == null ? null : menuItems.get(item.getMenuItemId());
+            if (menuItem == null || !Objects.equals(menuItem.getRestaurantId(), order.getRestaurantId())) {
+                throw new RuntimeException("Menu item not found: " + item.getMenuItemId());
+            }
+            if (!menuItem.isAvailable()) {
+                throw new RuntimeException("Menu item is not available: " + menuItem.getName());
+            }
+            if (item.getQuantity() < 1) {
+                throw new RuntimeException("Invalid quantity for menu item: " + menuItem.getName());
+            }
+            
+            BigDecimal customizationPrice = priceCustomizations(item, menuItem);
+            item.setMenuItemName(menuItem.getName());
+            item.setUnitPrice(menuItem.getPrice());
+            item.setTotalPrice(menuItem.getPrice().add(customizationPrice).multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        
+        // New orders always start pending; status and version are only changed by transitions
+        order.setStatus(Order.OrderStatus.PENDING);
+        if (order.getPaymentStatus() == null) {
+            order.setPaymentStatus(Order.PaymentStatus.PENDING);
+        }
+        order.setVersion(null);
+        
+        // There is no server-side promotion engine yet, so client-supplied discounts are not trusted
+        order.setDiscountAmount(BigDecimal.ZERO);
+        
+        // Generate order number
+        order.setOrderNumber(generateOrderNumber());
+        
+        // Set scheduled delivery time
+        LocalTime deliveryTime = timeBasedOrderingService.getDeliveryTime(order.getMealType());
+        order.setScheduledDeliveryTime(deliveryTime);
+        
+        // Calculate order totals
+        calculateOrderTotals(order);
+        
+        // Set order time
+        order.setOrderTime(LocalDateTime.now(clock));
     }
     
     /**
-     * Get orders by user and status
+     * Validate the selected customizations of an order item and return their per-unit price
      */
-    public List<Order> getOrdersByUserAndStatus(String userId, Order.OrderStatus status) {
-        return orderRepository.findByUserIdAndStatus(userId, status);
+    private BigDecimal priceCustomizations(Order.OrderItem item, MenuItem menuItem) {
+        BigDecimal total = BigDecimal.ZERO;
+        if (item.getCustomizations() == null) {
+            return total;
+        }
+        
+        for (Order.CustomizationSelection selection : item.getCustomizations()) {
+            MenuItem.CustomizationOption option = findCustomizationOption(menuItem, selection.getOptionName());
+            if (option == null) {
+                throw new RuntimeException("Unknown customization " + selection.getOptionName() + " for " + menuItem.getName());
+            }
+            
+            BigDecimal price;
+            if (option.getChoices() != null && !option.getChoices().isEmpty()) {
+                MenuItem.CustomizationChoice choice = option.getChoices().stream()
+                        .filter(candidate -> Objects.equals(candidate.getName(), selection.getSelectedChoice()))
+                        .findFirst()
+                        .orElseThrow(() -> new RuntimeException("Unknown choice " + selection.getSelectedChoice()
+                                + " for customization " + option.getName()));
+                price = choice.getPrice();
+            } else {
+                // Free-form options (e.g. "text") carry a flat surcharge on the option itself
+                price = option.getAdditionalPrice();
+            }
+            
+            price = price == null ? BigDecimal.ZERO : price;
+            selection.setAdditionalPrice(price);
+            total = total.add(price);
+        }
+        return total;
     }
     
-    /**
-     * Get orders by restaurant and status
-     */
-    public List<Order> getOrdersByRestaurantAndStatus(String restaurantId, Order.OrderStatus status) {
-        return orderRepository.findByRestaurantIdAndStatus(restaurantId, status);
+    private MenuItem.CustomizationOption findCustomizationOption(MenuItem menuItem, String optionName) {
+        if (menuItem.getCustomizationOptions() == null) {
+            return null;
+        }
+        for (MenuItem.CustomizationOption option : menuItem.getCustomizationOptions()) {
+            if (Objects.equals(option.getName(), optionName)) {
+                return option;
+            }
+        }
+        return null;
     }
     
     /**
-     * Get orders by meal type
+     * Get order by ID
      */
-    public List<Order> getOrdersByMealType(Order.MealType mealType) {
-        return orderRepository.findByMealType(mealType);
+    public Optional<Order> getOrderById(String id) {
+        return orderRepository.findById(id);
     }
     
     /**
-     * Get recent orders by user
+     * Get order by order number
      */
-    public List<Order> getRecentOrdersByUser(String userId) {
-        return orderRepository.findRecentOrdersByUserId(userId);
+    public Optional<Order> getOrderByOrderNumber(String orderNumber) {
+        return orderRepository.findByOrderNumber(orderNumber);
     }
     
     /**
      * Update order status
      */
     public Order updateOrderStatus(String orderId, Order.OrderStatus newStatus) {
-        return orderRepository.findById(orderId)
-                .map(order -> {
-                    order.setStatus(newStatus);
-                    
-                    // Set actual delivery time if order is delivered
-                    if (newStatus == Order.OrderStatus.DELIVERED) {
-                        order.setActualDeliveryTime(LocalDateTime.now());
-                    }
-                    
-                    return orderRepository.save(order);
-                })
-                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        Update update = new Update().set("status", newStatus).inc("version", 1);
+        
+        // Set actual delivery time if order is delivered
+        LocalDateTime actualDeliveryTime = newStatus == Order.OrderStatus.DELIVERED ? LocalDateTime.now(clock) : null;
+        if (actualDeliveryTime != null) {
+            update.set("actualDeliveryTime", actualDeliveryTime);
+        }
+        
+        return transitionOrder(orderId, ALLOWED_PREVIOUS_STATUSES.get(newStatus), update, order -> {
+            order.setStatus(newStatus);
+            if (actualDeliveryTime != null) {
+                order.setActualDeliveryTime(actualDeliveryTime);
+            }
+        });
     }
     
     /**
      * Cancel order
      */
     public Order cancelOrder(String orderId, String reason) {
-        return orderRepository.findById(orderId)
-                .map(order -> {
-                    // Only allow cancellation if order is not already delivered or cancelled
-                    if (order.getStatus() == Order.OrderStatus.DELIVERED || 
-                        order.getStatus() == Order.OrderStatus.CANCELLED) {
-                        throw new RuntimeException("Order cannot be cancelled");
-                    }
-                    
-                    order.setStatus(Order.OrderStatus.CANCELLED);
-                    order.setSpecialInstructions(reason);
-                    
-                    return orderRepository.save(order);
-                })
-                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        Update update = new Update()
+                .set("status", Order.OrderStatus.CANCELLED)
+                .set("specialInstructions", reason)
+                .inc("version", 1);
+        
+        // Only allow cancellation if order is not already delivered or cancelled
+        return transitionOrder(orderId, ALLOWED_PREVIOUS_STATUSES.get(Order.OrderStatus.CANCELLED), update, order -> {
+            order.setStatus(Order.OrderStatus.CANCELLED);
+            order.setSpecialInstructions(reason);
+        });
     }
     
     /**
      * Update order payment status
      */
     public Order updateOrderPaymentStatus(String orderId, Order.PaymentStatus paymentStatus, String transactionId) {
-        return orderRepository.findById(orderId)
-                .map(order -> {
-                    order.setPaymentStatus(paymentStatus);
-                    order.setPaymentTransactionId(transactionId);
-                    
-                    // If payment is completed, confirm the order
-                    if (paymentStatus == Order.PaymentStatus.COMPLETED && 
-                        order.getStatus() == Order.OrderStatus.PENDING) {
-                        order.setStatus(Order.OrderStatus.CONFIRMED);
-                    }
-                    
-                    return orderRepository.save(order);
-                })
-                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        boolean completed = paymentStatus == Order.PaymentStatus.COMPLETED;
+        
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("paymentStatus").toValue(paymentStatus.name())
+                .set("paymentTransactionId").toValue(transactionId == null ? null : LiteralOperators.Literal.asLiteral(transactionId))
+                .set("version").toValue(ArithmeticOperators.Add.valueOf(ConditionalOperators.ifNull("version").then(0)).add(1));
+        
+        // If payment is completed, confirm the order; decided server-side so a concurrent cancellation is never overwritten
+        if (completed) {
+            update.set("status").toValue(ConditionalOperators
+                    .when(ComparisonOperators.valueOf("status").equalToValue(Order.OrderStatus.PENDING.name()))
+                    .then(Order.OrderStatus.CONFIRMED.name())
+                    .otherwiseValueOf("status"));
+        }
+        
+        return transitionOrder(orderId, EnumSet.allOf(Order.OrderStatus.class), update, order -> {
+            if (completed && order.getStatus() == Order.OrderStatus.PENDING) {
+                order.setStatus(Order.OrderStatus.CONFIRMED);
+            }
+            order.setPaymentStatus(paymentStatus);
+            order.setPaymentTransactionId(transactionId);
+        });
     }
     
     /**
      * Assign delivery person to order
      */
     public Order assignDeliveryPerson(String orderId, String deliveryPersonName, String deliveryPersonPhone) {
-        return orderRepository.findById(orderId)
-                .map(order -> {
-                    order.setDeliveryPersonName(deliveryPersonName);
-                    order.setDeliveryPersonPhone(deliveryPersonPhone);
-                    order.setStatus(Order.OrderStatus.OUT_FOR_DELIVERY);
-                    
-                    return orderRepository.save(order);
-                })
-                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
-    }
-    
-    /**
-     * Get orders by date range
-     */
-    public List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findByOrderTimeBetween(startDate, endDate);
-    }
-    
-    /**
-     * Get orders by user and date range
-     */
-    public List<Order> getOrdersByUserAndDateRange(String userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findByUserIdAndOrderTimeBetween(userId, startDate, endDate);
+        Update update = new Update()
+                .set("deliveryPersonName", deliveryPersonName)
+                .set("deliveryPersonPhone", deliveryPersonPhone)
+                .set("status", Order.OrderStatus.OUT_FOR_DELIVERY)
+                .inc("version", 1);
+        
+        return transitionOrder(orderId, ALLOWED_PREVIOUS_STATUSES.get(Order.OrderStatus.OUT_FOR_DELIVERY), update, order -> {
+            order.setStatus(Order.OrderStatus.OUT_FOR_DELIVERY);
+            order.setDeliveryPersonName(deliveryPersonName);
+            order.setDeliveryPersonPhone(deliveryPersonPhone);
+        });
     }
     
     /**
-     * Get orders by restaurant and date range
+     * Apply a transition as one conditional findAndModify and return the updated order.
+     * The update must bump the version, and applyChanges must mirror it on the pre-update document,
+     * so nothing is re-read; an order that is missing or in a status the transition does not
+     * accept is rejected.
      */
-    public List<Order> getOrdersByRestaurantAndDateRange(String restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findByRestaurantIdAndOrderTimeBetween(restaurantId, startDate, endDate);
+    private Order transitionOrder(String orderId, Set<Order.OrderStatus> expectedStatuses, UpdateDefinition update,
+                                  Consumer<Order> applyChanges) {
+        Order order;
+        Order.OrderStatus previousStatus;
+        userOrderStatsRebuildLease.writeLock().lock();
+        try {
+            order = expectedStatuses.isEmpty() ? null : orderRepository.updateIfStatusIn(orderId, expectedStatuses, update);
+            if (order == null) {
+                throw new RuntimeException("Order not found with id: " + orderId + " or its status does not allow this change");
+            }
+            
+            previousStatus = order.getStatus();
+            applyChanges.accept(order);
+            order.setVersion(order.getVersion() == null ? 1L : order.getVersion() + 1);
+            recordStatusChange(order, previousStatus);
+        } finally {
+            userOrderStatsRebuildLease.writeLock().unlock();
+        }
+        if (order.getStatus() == Order.OrderStatus.CANCELLED && previousStatus != Order.OrderStatus.CANCELLED) {
+            orderCapacityService.release(order);
+        }
+        orderEventBroadcaster.publish(order);
+        return order;
     }
     
     /**
-     * Get orders by delivery person
+     * Get one page of orders matching a filter, newest first.
+     * The cursor is the opaque nextCursor of the previous page, or null for the first page.
      */
-    public List<Order> getOrdersByDeliveryPerson(String deliveryPersonPhone) {
-        return orderRepository.findByDeliveryPersonPhone(deliveryPersonPhone);
+    public OrderPage getOrderPage(OrderFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        
+        LocalDateTime afterOrderTime = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keyset = decodeCursor(cursor);
+            afterOrderTime = LocalDateTime.parse(keyset[0]);
+            afterId = keyset[1];
+        }
+        
+        // Fetch one extra order to learn whether another page exists
+        List<OrderSummary> orders = orderRepository.findPage(filter.getCriteria(), afterOrderTime, afterId, pageSize + 1);
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+        
+        String nextCursor = hasMore ? encodeCursor(orders.get(orders.size() - 1)) : null;
+        return new OrderPage(orders, nextCursor, hasMore);
     }
     
     /**
-     * Get orders by delivery area
+     * Stream all orders matching a filter, newest first, straight from the MongoDB cursor.
+     * The caller must close the returned stream.
      */
-    public List<Order> getOrdersByDeliveryArea(String pincode) {
-        return orderRepository.findByDeliveryPincode(pincode);
+    public Stream<OrderSummary> streamOrders(OrderFilter filter) {
+        return orderRepository.streamAll(filter.getCriteria());
     }
     
     /**
@@ -254,28 +522,81 @@ public class OrderService {
      * Get user order statistics
      */
     public UserOrderStats getUserOrderStats(String userId) {
-        List<Order> userOrders = orderRepository.findByUserId(userId);
+        UserOrderStatistics stats = userOrderStatisticsRepository.findById(userId)
+                .orElseGet(() -> new UserOrderStatistics(userId));
         
-        long totalOrders = userOrders.size();
-        long completedOrders = userOrders.stream()
-                .filter(order -> order.getStatus() == Order.OrderStatus.DELIVERED)
-                .count();
-        long cancelledOrders = userOrders.stream()
-                .filter(order -> order.getStatus() == Order.OrderStatus.CANCELLED)
-                .count();
+        return new UserOrderStats(userId, stats.getTotalOrders(), stats.getCompletedOrders(),
+                stats.getCancelledOrders(), stats.getTotalSpent());
+    }
+    
+    /**
+     * Recompute all user order statistics from the orders collection.
+     * Order writes on every instance wait until the rebuild is done.
+     */
+    public int rebuildUserOrderStats() {
+        return userOrderStatsRebuildLease.runExclusively(userOrderStatisticsRepository::rebuildFromOrders)
+                .orElseThrow(() -> new RebuildInProgressException("A user order statistics rebuild is already running"));
+    }
+    
+    /**
+     * Convert legacy string totals, then backfill user order statistics on first start against an existing
+     * orders collection; instances starting together leave the backfill to one of them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillUserOrderStats() {
+        orderRepository.convertLegacyTotals();
+        if (userOrderStatisticsRepository.count() == 0 && orderRepository.count() > 0) {
+            // Checked again under the lease, in case another instance finished the backfill meanwhile
+            userOrderStatsRebuildLease.runExclusively(() -> userOrderStatisticsRepository.count() == 0
+                    ? userOrderStatisticsRepository.rebuildFromOrders() : 0);
+        }
+    }
+    
+    /**
+     * Apply the effect of a new order or a status change to the user's order statistics.
+     * A null previous status means the order was just created.
+     */
+    private void recordStatusChange(Order order, Order.OrderStatus previousStatus) {
+        long completedDelta = statusCount(order.getStatus(), Order.OrderStatus.DELIVERED) - statusCount(previousStatus, Order.OrderStatus.DELIVERED);
+        long cancelledDelta = statusCount(order.getStatus(), Order.OrderStatus.CANCELLED) - statusCount(previousStatus, Order.OrderStatus.CANCELLED);
+        long createdDelta = previousStatus == null ? 1 : 0;
+        if (createdDelta == 0 && completedDelta == 0 && cancelledDelta == 0) {
+            return;
+        }
         
-        BigDecimal totalSpent = userOrders.stream()
-                .filter(order -> order.getStatus() == Order.OrderStatus.DELIVERED)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal spentDelta = order.getTotalAmount() == null ? BigDecimal.ZERO
+                : order.getTotalAmount().multiply(BigDecimal.valueOf(completedDelta));
+        userOrderStatisticsRepository.increment(order.getUserId(), createdDelta, completedDelta, cancelledDelta, spentDelta);
+    }
+    
+    private static Map<Order.OrderStatus, Set<Order.OrderStatus>> allowedPreviousStatuses() {
+        List<Order.OrderStatus> lifecycle = List.of(
+                Order.OrderStatus.PENDING,
+                Order.OrderStatus.CONFIRMED,
+                Order.OrderStatus.PREPARING,
+                Order.OrderStatus.READY_FOR_PICKUP,
+                Order.OrderStatus.OUT_FOR_DELIVERY,
+                Order.OrderStatus.DELIVERED);
         
-        return new UserOrderStats(userId, totalOrders, completedOrders, cancelledOrders, totalSpent);
+        Map<Order.OrderStatus, Set<Order.OrderStatus>> allowed = new EnumMap<>(Order.OrderStatus.class);
+        for (int i = 0; i < lifecycle.size(); i++) {
+            Set<Order.OrderStatus> earlier = EnumSet.noneOf(Order.OrderStatus.class);
+            earlier.addAll(lifecycle.subList(0, i));
+            allowed.put(lifecycle.get(i), earlier);
+        }
+        allowed.put(Order.OrderStatus.CANCELLED, EnumSet.copyOf(lifecycle.subList(0, lifecycle.size() - 1)));
+        allowed.put(Order.OrderStatus.REFUNDED, EnumSet.of(Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED));
+        return allowed;
+    }
+    
+    private static long statusCount(Order.OrderStatus status, Order.OrderStatus counted) {
+        return status == counted ? 1 : 0;
     }
     
     /**
-     * Calculate order totals
+     * Calculate order totals (package-private for the pricing benchmarks)
      */
-    private void calculateOrderTotals(Order order) {
+    void calculateOrderTotals(Order order) {
         BigDecimal subtotal = BigDecimal.ZERO;
         
         // Calculate subtotal from order items
@@ -300,10 +621,158 @@ public class OrderService {
     }
     
     /**
-     * Generate unique order number
+     * Generate unique order number (package-private for the pricing benchmarks)
      */
-    private String generateOrderNumber() {
-        return "ORD" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 4).toUpperCase();
+    String generateOrderNumber() {
+        return orderNumberGenerator.next();
+    }
+    
+    private String encodeCursor(OrderSummary order) {
+        String keyset = order.getOrderTime() + "|" + order.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String[] decodeCursor(String cursor) {
+        String keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = keyset.split("\\|", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid order cursor: " + cursor);
+        }
+        return parts;
+    }
+    
+    // Inner class describing which orders a list request selects
+    public static class OrderFilter {
+        private final Criteria criteria;
+        
+        private OrderFilter(Criteria criteria) {
+            this.criteria = criteria;
+        }
+        
+        public static OrderFilter byUser(String userId) {
+            return new OrderFilter(Criteria.where("userId").is(userId));
+        }
+        
+        public static OrderFilter byRestaurant(String restaurantId) {
+            return new OrderFilter(Criteria.where("restaurantId").is(restaurantId));
+        }
+        
+        public static OrderFilter byStatus(Order.OrderStatus status) {
+            return new OrderFilter(Criteria.where("status").is(status));
+        }
+        
+        public static OrderFilter byUserAndStatus(String userId, Order.OrderStatus status) {
+            return new OrderFilter(Criteria.where("userId").is(userId).and("status").is(status));
+        }
+        
+        public static OrderFilter byRestaurantAndStatus(String restaurantId, Order.OrderStatus status) {
+            return new OrderFilter(Criteria.where("restaurantId").is(restaurantId).and("status").is(status));
+        }
+        
+        public static OrderFilter byMealType(Order.MealType mealType) {
+            return new OrderFilter(Criteria.where("mealType").is(mealType));
+        }
+        
+        public static OrderFilter byDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+            return new OrderFilter(Criteria.where("orderTime").gt(startDate).lt(endDate));
+        }
+        
+        public static OrderFilter byUserAndDateRange(String userId, LocalDateTime startDate, LocalDateTime endDate) {
+            return new OrderFilter(Criteria.where("userId").is(userId).and("orderTime").gt(startDate).lt(endDate));
+        }
+        
+        public static OrderFilter byRestaurantAndDateRange(String restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
+            return new OrderFilter(Criteria.where("restaurantId").is(restaurantId).and("orderTime").gt(startDate).lt(endDate));
+        }
+        
+        public static OrderFilter byDeliveryPerson(String deliveryPersonPhone) {
+            return new OrderFilter(Criteria.where("deliveryPersonPhone").is(deliveryPersonPhone));
+        }
+        
+        public static OrderFilter byDeliveryArea(String pincode) {
+            return new OrderFilter(Criteria.where("deliveryAddress.pincode").is(pincode));
+        }
+        
+        public Criteria getCriteria() { return criteria; }
+    }
+    
+    // Inner class for a keyset-paginated slice of orders
+    public static class OrderPage {
+        private List<OrderSummary> items;
+        private String nextCursor;
+        private boolean hasMore;
+        
+        public OrderPage(List<OrderSummary> items, String nextCursor, boolean hasMore) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+        
+        // Getters and Setters
+        public List<OrderSummary> getItems() { return items; }
+        public void setItems(List<OrderSummary> items) { this.items = items; }
+        
+        public String getNextCursor() { return nextCursor; }
+        public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+        
+        public boolean isHasMore() { return hasMore; }
+        public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    }
+    
+    // Inner classes for batch order placement
+    public static class BatchOrderResult {
+        private int submitted;
+        private int accepted;
+        private int rejected;
+        private List<BatchOrderItemResult> results;
+        
+        public BatchOrderResult(List<BatchOrderItemResult> results) {
+            this.results = results;
+            this.submitted = results.size();
+            this.accepted = (int) results.stream().filter(BatchOrderItemResult::isSuccess).count();
+            this.rejected = submitted - accepted;
+        }
+        
+        // Getters and Setters
+        public int getSubmitted() { return submitted; }
+        public void setSubmitted(int submitted) { this.submitted = submitted; }
+        
+        public int getAccepted() { return accepted; }
+        public void setAccepted(int accepted) { this.accepted = accepted; }
+        
+        public int getRejected() { return rejected; }
+        public void setRejected(int rejected) { this.rejected = rejected; }
+        
+        public List<BatchOrderItemResult> getResults() { return results; }
+        public void setResults(List<BatchOrderItemResult> results) { this.results = results; }
+    }
+    
+    public static class BatchOrderItemResult {
+        private int index;
+        private boolean success;
+        private String orderId;
+        private String orderNumber;
+        private String error;
+        
+        public BatchOrderItemResult(int index) {
+            this.index = index;
+        }
+        
+        // Getters and Setters
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+        
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+        
+        public String getOrderId() { return orderId; }
+        public void setOrderId(String orderId) { this.orderId = orderId; }
+        
+        public String getOrderNumber() { return orderNumber; }
+        public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+        
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
     }
     
     // Inner classes for statistics
@@ -381,4 +850,11 @@ public class OrderService {
         public BigDecimal getTotalSpent() { return totalSpent; }
         public void setTotalSpent(BigDecimal totalSpent) { this.totalSpent = totalSpent; }
     }
+    
+    // Thrown when a user order statistics rebuild is requested while another one runs
+    public static class RebuildInProgressException extends RuntimeException {
+        public RebuildInProgressException(String message) {
+            super(message);
+        }
+    }
 }
@@ -1,31 +1,86 @@
 package com.example.todo.service;
 
+import com.example.todo.cache.JsonResponseCache;
+import com.example.todo.cache.ResourceVersions;
+import com.example.todo.config.ThreadingConfig;
 import com.example.todo.model.Restaurant;
 import com.example.todo.model.Order;
 import com.example.todo.repository.RestaurantRepository;
+import com.example.todo.search.DeliveryAreaIndex;
+import com.example.todo.search.RestaurantAutocompleteIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class RestaurantService {
     
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantService.class);
+    
+    private static final int DEFAULT_AUTOCOMPLETE_RESULTS = 10;
+    private static final int MAX_AUTOCOMPLETE_RESULTS = 50;
+    
     @Autowired
     private RestaurantRepository restaurantRepository;
     
     @Autowired
     private TimeBasedOrderingService timeBasedOrderingService;
     
+    @Autowired
+    private RestaurantAutocompleteIndex restaurantAutocompleteIndex;
+    
+    @Autowired
+    private DeliveryAreaIndex deliveryAreaIndex;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+    
+    @Autowired
+    private Clock clock;
+    
+    @Value("${restaurant.index.reload-minutes:15}")
+    private long indexReloadMinutes;
+    
+    private final ScheduledExecutorService indexReloader =
+            Executors.newSingleThreadScheduledExecutor(ThreadingConfig.daemonThreads("restaurant-index-reload-"));
+    
+    // Version of each restaurant as last applied to the in-memory indexes; guarded by indexLock
+    private final Object indexLock = new Object();
+    private final Map<String, Long> indexedVersions = new HashMap<>();
+    
     /**
      * Create a new restaurant with default time windows
      */
     public Restaurant createRestaurant(Restaurant restaurant) {
+        // New restaurants always start unversioned so that the save inserts
+        restaurant.setVersion(null);
+        
         // Set default time windows for all meal types
         setDefaultTimeWindows(restaurant);
-        return restaurantRepository.save(restaurant);
+        restaurant.setUpdatedAt(clock.instant());
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        onRestaurantChanged(savedRestaurant);
+        return savedRestaurant;
     }
     
     /**
@@ -53,9 +108,34 @@ public class RestaurantService {
      * Get restaurants by delivery area
      */
     public List<Restaurant> getRestaurantsByDeliveryArea(String pincode) {
+        if (deliveryAreaIndex.covers(pincode)) {
+            return deliveryAreaIndex.find(pincode, DeliveryAreaIndex.ANY_MEAL);
+        }
         return restaurantRepository.findByDeliveryAreasContaining(pincode);
     }
     
+    /**
+     * Get restaurants delivering to a pincode whose ordering window is open right now,
+     * optionally for one meal type only
+     */
+    public List<Restaurant> getRestaurantsOpenForDelivery(String pincode, Order.MealType mealType) {
+        int mealMask = timeBasedOrderingService.getOpenMealMask();
+        if (mealType != null) {
+            mealMask &= 1 << mealType.ordinal();
+        }
+        if (mealMask == 0) {
+            return List.of();
+        }
+        if (deliveryAreaIndex.covers(pincode)) {
+            return deliveryAreaIndex.find(pincode, mealMask);
+        }
+        
+        int openMask = mealMask;
+        return restaurantRepository.findByDeliveryAreasContaining(pincode).stream()
+                .filter(restaurant -> restaurant.isActive() && (DeliveryAreaIndex.mealMaskOf(restaurant) & openMask) != 0)
+                .toList();
+    }
+    
     /**
      * Get restaurants available for a specific meal type
      */
@@ -80,6 +160,74 @@ public class RestaurantService {
         return restaurantRepository.findByNameAndDeliveryAreas(name, pincodes);
     }
     
+    /**
+     * Autocomplete restaurant names by prefix, optionally within a delivery pincode, best rated first.
+     * Served from the in-memory index; falls back to a name regex until the index is built.
+     */
+    public List<RestaurantAutocompleteIndex.Suggestion> autocompleteRestaurants(String query, String pincode, Integer limit) {
+        int maxResults = limit == null ? DEFAULT_AUTOCOMPLETE_RESULTS : Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_RESULTS));
+        if (restaurantAutocompleteIndex.isReady()) {
+            return restaurantAutocompleteIndex.complete(query, pincode, maxResults);
+        }
+        
+        RestaurantAutocompleteIndex fallback = new RestaurantAutocompleteIndex();
+        fallback.rebuild(restaurantRepository.findByNameContainingIgnoreCase(query));
+        return fallback.complete(query, pincode, maxResults);
+    }
+    
+    /**
+     * Load every active restaurant into the in-memory indexes and version stamps once the application is up.
+     * Restaurants other instances write reach the indexes through the version refresh, and a periodic full
+     * reload catches anything written without going through a service.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildRestaurantIndexes() {
+        restaurantRepository.initializeVersions();
+        reloadIndexes();
+        resourceVersions.addRestaurantListener(restaurants -> restaurants.forEach(this::indexRestaurant));
+        resourceVersions.refresh();
+        indexReloader.scheduleWithFixedDelay(this::scheduledIndexReload,
+                indexReloadMinutes, indexReloadMinutes, TimeUnit.MINUTES);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        indexReloader.shutdownNow();
+    }
+    
+    private void reloadIndexes() {
+        List<Restaurant> restaurants = restaurantRepository.findByIsActiveTrue();
+        synchronized (indexLock) {
+            restaurantAutocompleteIndex.rebuild(restaurants);
+            deliveryAreaIndex.rebuild(restaurants);
+            // A write racing the read above is applied again by the next version refresh, which sees it as newer
+            indexedVersions.clear();
+            restaurants.forEach(restaurant -> indexedVersions.put(restaurant.getId(), restaurant.getVersion()));
+        }
+    }
+    
+    private void scheduledIndexReload() {
+        try {
+            reloadIndexes();
+        } catch (RuntimeException e) {
+            // A failed reload keeps the current indexes and must not cancel the schedule
+            logger.warn("Reloading the restaurant indexes failed", e);
+        }
+    }
+    
+    // Apply a restaurant to the indexes unless they already hold this version or a newer one
+    private void indexRestaurant(Restaurant restaurant) {
+        synchronized (indexLock) {
+            Long indexed = indexedVersions.get(restaurant.getId());
+            if (indexed != null && restaurant.getVersion() != null && indexed >= restaurant.getVersion()) {
+                return;
+            }
+            restaurantAutocompleteIndex.update(restaurant);
+            deliveryAreaIndex.update(restaurant);
+            indexedVersions.put(restaurant.getId(), restaurant.getVersion());
+        }
+    }
+    
     /**
      * Get restaurants by rating
      */
@@ -115,7 +263,10 @@ public class RestaurantService {
                         restaurant.setDinnerWindow(updatedRestaurant.getDinnerWindow());
                     }
                     
-                    return restaurantRepository.save(restaurant);
+                    restaurant.setUpdatedAt(clock.instant());
+                    Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+                    onRestaurantChanged(savedRestaurant);
+                    return savedRestaurant;
                 })
                 .orElseThrow(() -> new RuntimeException("Restaurant not found with id: " + id));
     }
@@ -127,7 +278,8 @@ public class RestaurantService {
         restaurantRepository.findById(id)
                 .ifPresent(restaurant -> {
                     restaurant.setActive(false);
-                    restaurantRepository.save(restaurant);
+                    restaurant.setUpdatedAt(clock.instant());
+                    onRestaurantChanged(restaurantRepository.save(restaurant));
                 });
     }
     
@@ -135,19 +287,13 @@ public class RestaurantService {
      * Update restaurant rating
      */
     public Restaurant updateRestaurantRating(String id, double newRating) {
-        return restaurantRepository.findById(id)
-                .map(restaurant -> {
-                    // Calculate new average rating
-                    double currentRating = restaurant.getRating();
-                    int currentReviewCount = restaurant.getReviewCount();
-                    double newAverageRating = ((currentRating * currentReviewCount) + newRating) / (currentReviewCount + 1);
-                    
-                    restaurant.setRating(newAverageRating);
-                    restaurant.setReviewCount(currentReviewCount + 1);
-                    
-                    return restaurantRepository.save(restaurant);
-                })
-                .orElseThrow(() -> new RuntimeException("Restaurant not found with id: " + id));
+        Restaurant restaurant = restaurantRepository.addRating(id, newRating);
+        if (restaurant == null) {
+            throw new RuntimeException("Restaurant not found with id: " + id);
+        }
+        // The indexes and list responses pick the new rating up with the next version refresh
+        resourceVersions.restaurantRated(restaurant);
+        return restaurant;
     }
     
     /**
@@ -156,12 +302,23 @@ public class RestaurantService {
     public List<Restaurant> getRestaurantsByCriteria(List<String> categories, List<String> pincodes, 
                                                     Double minRating, Order.MealType mealType) {
         List<Restaurant> restaurants;
+        boolean hasCategories = categories != null && !categories.isEmpty();
+        boolean hasPincodes = pincodes != null && !pincodes.isEmpty();
         
-        if (categories != null && !categories.isEmpty() && pincodes != null && !pincodes.isEmpty()) {
+        if (hasPincodes && pincodes.stream().allMatch(deliveryAreaIndex::covers)) {
+            int mealMask = mealType != null ? 1 << mealType.ordinal() : DeliveryAreaIndex.ANY_MEAL;
+            Map<String, Restaurant> delivering = new LinkedHashMap<>();
+            for (String pincode : pincodes) {
+                deliveryAreaIndex.find(pincode, mealMask).forEach(restaurant -> delivering.putIfAbsent(restaurant.getId(), restaurant));
+            }
+            restaurants = hasCategories
+                    ? delivering.values().stream().filter(restaurant -> hasAnyCategory(restaurant, categories)).toList()
+                    : List.copyOf(delivering.values());
+        } else if (hasCategories && hasPincodes) {
             restaurants = restaurantRepository.findActiveRestaurantsByCategoriesAndDeliveryAreas(categories, pincodes);
-        } else if (categories != null && !categories.isEmpty()) {
+        } else if (hasCategories) {
             restaurants = restaurantRepository.findByCategoriesContaining(categories.get(0));
-        } else if (pincodes != null && !pincodes.isEmpty()) {
+        } else if (hasPincodes) {
             restaurants = restaurantRepository.findByDeliveryAreasContaining(pincodes.get(0));
         } else {
             restaurants = restaurantRepository.findByIsActiveTrue();
@@ -184,6 +341,19 @@ public class RestaurantService {
         return restaurants;
     }
     
+    /**
+     * Refresh everything derived from a restaurant after a write
+     */
+    private void onRestaurantChanged(Restaurant restaurant) {
+        indexRestaurant(restaurant);
+        jsonResponseCache.invalidate(JsonResponseCache.RESTAURANTS_GROUP);
+        resourceVersions.restaurantChanged(restaurant);
+    }
+    
+    private static boolean hasAnyCategory(Restaurant restaurant, Collection<String> categories) {
+        return restaurant.getCategories() != null && restaurant.getCategories().stream().anyMatch(categories::contains);
+    }
+    
     /**
      * Set default time windows for a restaurant
      */
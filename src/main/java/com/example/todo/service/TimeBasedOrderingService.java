@@ -2,14 +2,29 @@ package com.example.todo.service;
 
 import com.example.todo.model.Order;
 import com.example.todo.model.Restaurant;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalTime;
-import java.time.LocalDateTime;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.List;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Decides which meal ordering windows are open.
+ * The configured windows are compiled into a 1440-entry minute-of-day table (open windows, next window
+ * and time remaining per minute), so every check is an array lookup against the injected Clock.
+ * The table is rebuilt whenever a meal window is reconfigured.
+ * Returned windows and time-remaining objects are shared instances and must be treated as read-only.
+ */
 @Service
 public class TimeBasedOrderingService {
     
@@ -29,123 +44,93 @@ public class TimeBasedOrderingService {
     private static final LocalTime DINNER_DELIVERY_START = LocalTime.of(19, 30); // 7:30 PM
     private static final LocalTime DINNER_DELIVERY_END = LocalTime.of(20, 15);   // 8:15 PM
     
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final Order.MealType[] MEAL_TYPES = Order.MealType.values();
+    
+    private final Clock clock;
+    
+    // Current configuration; replaced as a whole (copy-on-write) when a window changes
+    private volatile Map<Order.MealType, MealWindow> mealWindows;
+    private volatile ScheduleTable schedule;
+    private volatile DayContext day;
+    
+    @Autowired
+    public TimeBasedOrderingService(Clock clock) {
+        this.clock = clock;
+        
+        Map<Order.MealType, MealWindow> windows = new EnumMap<>(Order.MealType.class);
+        windows.put(Order.MealType.BREAKFAST, new MealWindow(BREAKFAST_ORDER_START, BREAKFAST_ORDER_END,
+                BREAKFAST_DELIVERY_START, BREAKFAST_DELIVERY_END));
+        windows.put(Order.MealType.LUNCH, new MealWindow(LUNCH_ORDER_START, LUNCH_ORDER_END,
+                LUNCH_DELIVERY_START, LUNCH_DELIVERY_END));
+        windows.put(Order.MealType.DINNER, new MealWindow(DINNER_ORDER_START, DINNER_ORDER_END,
+                DINNER_DELIVERY_START, DINNER_DELIVERY_END));
+        this.mealWindows = windows;
+        this.schedule = new ScheduleTable(windows);
+    }
+    
+    /**
+     * Reconfigure the ordering and delivery window of a meal type and rebuild the schedule table
+     */
+    public synchronized void updateMealWindow(Order.MealType mealType, LocalTime orderStartTime, LocalTime orderEndTime,
+                                              LocalTime deliveryStartTime, LocalTime deliveryEndTime) {
+        Map<Order.MealType, MealWindow> windows = new EnumMap<>(mealWindows);
+        windows.put(mealType, new MealWindow(orderStartTime, orderEndTime, deliveryStartTime, deliveryEndTime));
+        this.mealWindows = windows;
+        this.schedule = new ScheduleTable(windows);
+    }
+    
     /**
      * Check if ordering is allowed for a specific meal type at the current time
      */
     public boolean isOrderingAllowed(Order.MealType mealType) {
-        LocalTime currentTime = LocalTime.now();
-        
-        switch (mealType) {
-            case BREAKFAST:
-                return isWithinBreakfastOrderWindow(currentTime);
-            case LUNCH:
-                return isWithinLunchOrderWindow(currentTime);
-            case DINNER:
-                return isWithinDinnerOrderWindow(currentTime);
-            default:
-                return false;
-        }
+        long nowMillis = clock.millis();
+        DayContext today = currentDay(nowMillis);
+        return today.schedule.isOpen(mealType, today.minuteOfDay(nowMillis));
+    }
+    
+    /**
+     * Get the bitmask of meal types (bit = MealType ordinal) whose ordering window is open right now
+     */
+    public int getOpenMealMask() {
+        long nowMillis = clock.millis();
+        DayContext today = currentDay(nowMillis);
+        return today.schedule.openMask[today.minuteOfDay(nowMillis)];
     }
     
     /**
      * Get the next available ordering window for a meal type
      */
     public OrderingWindow getNextOrderingWindow(Order.MealType mealType) {
-        LocalTime currentTime = LocalTime.now();
-        LocalDate currentDate = LocalDate.now();
-        
-        switch (mealType) {
-            case BREAKFAST:
-                if (isWithinBreakfastOrderWindow(currentTime)) {
-                    return new OrderingWindow(currentDate, BREAKFAST_ORDER_START, BREAKFAST_ORDER_END, 
-                                            BREAKFAST_DELIVERY_START, BREAKFAST_DELIVERY_END);
-                } else {
-                    // Next breakfast window is tomorrow
-                    return new OrderingWindow(currentDate.plusDays(1), BREAKFAST_ORDER_START, BREAKFAST_ORDER_END, 
-                                            BREAKFAST_DELIVERY_START, BREAKFAST_DELIVERY_END);
-                }
-            case LUNCH:
-                if (isWithinLunchOrderWindow(currentTime)) {
-                    return new OrderingWindow(currentDate, LUNCH_ORDER_START, LUNCH_ORDER_END, 
-                                            LUNCH_DELIVERY_START, LUNCH_DELIVERY_END);
-                } else {
-                    // Next lunch window is tomorrow
-                    return new OrderingWindow(currentDate.plusDays(1), LUNCH_ORDER_START, LUNCH_ORDER_END, 
-                                            LUNCH_DELIVERY_START, LUNCH_DELIVERY_END);
-                }
-            case DINNER:
-                if (isWithinDinnerOrderWindow(currentTime)) {
-                    return new OrderingWindow(currentDate, DINNER_ORDER_START, DINNER_ORDER_END, 
-                                            DINNER_DELIVERY_START, DINNER_DELIVERY_END);
-                } else {
-                    // Next dinner window is tomorrow
-                    return new OrderingWindow(currentDate.plusDays(1), DINNER_ORDER_START, DINNER_ORDER_END, 
-                                            DINNER_DELIVERY_START, DINNER_DELIVERY_END);
-                }
-            default:
-                return null;
-        }
+        long nowMillis = clock.millis();
+        DayContext today = currentDay(nowMillis);
+        int minute = today.minuteOfDay(nowMillis);
+        int ordinal = mealType.ordinal();
+        return today.windows[today.schedule.nextWindowDay[ordinal][minute]][ordinal];
     }
     
     /**
      * Get all available ordering windows for today
      */
     public List<OrderingWindow> getAvailableOrderingWindows() {
-        List<OrderingWindow> windows = new ArrayList<>();
-        LocalTime currentTime = LocalTime.now();
-        LocalDate currentDate = LocalDate.now();
-        
-        // Check breakfast window
-        if (isWithinBreakfastOrderWindow(currentTime)) {
-            windows.add(new OrderingWindow(currentDate, BREAKFAST_ORDER_START, BREAKFAST_ORDER_END, 
-                                        BREAKFAST_DELIVERY_START, BREAKFAST_DELIVERY_END));
-        }
-        
-        // Check lunch window
-        if (isWithinLunchOrderWindow(currentTime)) {
-            windows.add(new OrderingWindow(currentDate, LUNCH_ORDER_START, LUNCH_ORDER_END, 
-                                        LUNCH_DELIVERY_START, LUNCH_DELIVERY_END));
-        }
-        
-        // Check dinner window
-        if (isWithinDinnerOrderWindow(currentTime)) {
-            windows.add(new OrderingWindow(currentDate, DINNER_ORDER_START, DINNER_ORDER_END, 
-                                        DINNER_DELIVERY_START, DINNER_DELIVERY_END));
-        }
-        
-        return windows;
+        long nowMillis = clock.millis();
+        DayContext today = currentDay(nowMillis);
+        return today.availableWindows[today.schedule.openMask[today.minuteOfDay(nowMillis)]];
     }
     
     /**
      * Get the delivery time for a specific meal type
      */
     public LocalTime getDeliveryTime(Order.MealType mealType) {
-        switch (mealType) {
-            case BREAKFAST:
-                return BREAKFAST_DELIVERY_START;
-            case LUNCH:
-                return LUNCH_DELIVERY_START;
-            case DINNER:
-                return DINNER_DELIVERY_START;
-            default:
-                return null;
-        }
+        return mealWindows.get(mealType).deliveryStartTime;
     }
     
     /**
      * Get the delivery time range for a specific meal type
      */
     public DeliveryTimeRange getDeliveryTimeRange(Order.MealType mealType) {
-        switch (mealType) {
-            case BREAKFAST:
-                return new DeliveryTimeRange(BREAKFAST_DELIVERY_START, BREAKFAST_DELIVERY_END);
-            case LUNCH:
-                return new DeliveryTimeRange(LUNCH_DELIVERY_START, LUNCH_DELIVERY_END);
-            case DINNER:
-                return new DeliveryTimeRange(DINNER_DELIVERY_START, DINNER_DELIVERY_END);
-            default:
-                return null;
-        }
+        return schedule.deliveryTimeRanges[mealType.ordinal()];
     }
     
     /**
@@ -172,53 +157,152 @@ public class TimeBasedOrderingService {
      * Get the time remaining for ordering a specific meal type
      */
     public TimeRemaining getTimeRemainingForOrdering(Order.MealType mealType) {
-        LocalTime currentTime = LocalTime.now();
-        
-        switch (mealType) {
-            case BREAKFAST:
-                if (isWithinBreakfastOrderWindow(currentTime)) {
-                    return calculateTimeRemaining(currentTime, BREAKFAST_ORDER_END);
-                }
-                break;
-            case LUNCH:
-                if (isWithinLunchOrderWindow(currentTime)) {
-                    return calculateTimeRemaining(currentTime, LUNCH_ORDER_END);
-                }
-                break;
-            case DINNER:
-                if (isWithinDinnerOrderWindow(currentTime)) {
-                    return calculateTimeRemaining(currentTime, DINNER_ORDER_END);
-                }
-                break;
-        }
-        
-        return new TimeRemaining(0, 0, 0, false);
+        long nowMillis = clock.millis();
+        DayContext today = currentDay(nowMillis);
+        return today.schedule.timeRemaining[mealType.ordinal()][today.minuteOfDay(nowMillis)];
     }
     
     // Private helper methods
-    private boolean isWithinBreakfastOrderWindow(LocalTime currentTime) {
-        // Breakfast window spans from 9 PM to 7:30 AM next day
-        return currentTime.isAfter(BREAKFAST_ORDER_START) || currentTime.isBefore(BREAKFAST_ORDER_END);
+    private DayContext currentDay(long nowMillis) {
+        DayContext current = day;
+        if (current == null || current.schedule != schedule || !current.covers(nowMillis)) {
+            // Racing threads build identical contexts, so the last write simply wins
+            current = new DayContext(schedule, clock.getZone(), nowMillis);
+            day = current;
+        }
+        return current;
     }
     
-    private boolean isWithinLunchOrderWindow(LocalTime currentTime) {
-        return currentTime.isAfter(LUNCH_ORDER_START) && currentTime.isBefore(LUNCH_ORDER_END);
+    private static int minuteOf(LocalTime time) {
+        return time.toSecondOfDay() / 60;
     }
     
-    private boolean isWithinDinnerOrderWindow(LocalTime currentTime) {
-        return currentTime.isAfter(DINNER_ORDER_START) && currentTime.isBefore(DINNER_ORDER_END);
+    // Configured ordering and delivery times of one meal
+    private static final class MealWindow {
+        private final LocalTime orderStartTime;
+        private final LocalTime orderEndTime;
+        private final LocalTime deliveryStartTime;
+        private final LocalTime deliveryEndTime;
+        
+        MealWindow(LocalTime orderStartTime, LocalTime orderEndTime, LocalTime deliveryStartTime, LocalTime deliveryEndTime) {
+            this.orderStartTime = orderStartTime;
+            this.orderEndTime = orderEndTime;
+            this.deliveryStartTime = deliveryStartTime;
+            this.deliveryEndTime = deliveryEndTime;
+        }
     }
     
-    private TimeRemaining calculateTimeRemaining(LocalTime currentTime, LocalTime endTime) {
-        if (currentTime.isAfter(endTime)) {
-            return new TimeRemaining(0, 0, 0, false);
+    // Minute-of-day lookup table compiled from the meal windows
+    private static final class ScheduleTable {
+        private final MealWindow[] windows = new MealWindow[MEAL_TYPES.length];
+        // Bit i set when MEAL_TYPES[i] is open at that minute
+        private final byte[] openMask = new byte[MINUTES_PER_DAY];
+        // 0 when the meal's next window is today's (open now or opening later today), 1 when it is tomorrow's
+        private final byte[][] nextWindowDay = new byte[MEAL_TYPES.length][MINUTES_PER_DAY];
+        private final TimeRemaining[][] timeRemaining = new TimeRemaining[MEAL_TYPES.length][MINUTES_PER_DAY];
+        private final DeliveryTimeRange[] deliveryTimeRanges = new DeliveryTimeRange[MEAL_TYPES.length];
+        
+        ScheduleTable(Map<Order.MealType, MealWindow> mealWindows) {
+            TimeRemaining closed = new TimeRemaining(0, 0, 0, false);
+            
+            for (Order.MealType mealType : MEAL_TYPES) {
+                int meal = mealType.ordinal();
+                MealWindow window = mealWindows.get(mealType);
+                windows[meal] = window;
+                deliveryTimeRanges[meal] = new DeliveryTimeRange(window.deliveryStartTime, window.deliveryEndTime);
+                
+                int start = minuteOf(window.orderStartTime);
+                int end = minuteOf(window.orderEndTime);
+                boolean wrapsMidnight = end < start;
+                
+                for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+                    boolean open = wrapsMidnight
+                            ? minute >= start || minute < end
+                            : minute >= start && minute < end;
+                    
+                    if (open) {
+                        openMask[minute] |= (byte) (1 << meal);
+                        int remaining = Math.floorMod(end - minute, MINUTES_PER_DAY);
+                        timeRemaining[meal][minute] = new TimeRemaining(remaining / 60, remaining % 60, 0, true);
+                        nextWindowDay[meal][minute] = 0;
+                    } else {
+                        timeRemaining[meal][minute] = closed;
+                        // A closed window opens later today unless today's window has already ended
+                        boolean endedToday = !wrapsMidnight && minute >= end;
+                        nextWindowDay[meal][minute] = (byte) (endedToday ? 1 : 0);
+                    }
+                }
+            }
         }
         
-        int totalMinutes = endTime.toSecondOfDay() / 60 - currentTime.toSecondOfDay() / 60;
-        int hours = totalMinutes / 60;
-        int minutes = totalMinutes % 60;
+        boolean isOpen(Order.MealType mealType, int minute) {
+            return (openMask[minute] & (1 << mealType.ordinal())) != 0;
+        }
+    }
+    
+    // Per-day view: maps clock millis to a minute of day and holds the dated windows for today and tomorrow
+    private static final class DayContext {
+        private final ScheduleTable schedule;
+        // [0] = today's windows, [1] = tomorrow's windows, indexed by meal ordinal
+        private final OrderingWindow[][] windows = new OrderingWindow[2][MEAL_TYPES.length];
+        // Today's open windows for every possible open mask
+        @SuppressWarnings("unchecked")
+        private final List<OrderingWindow>[] availableWindows = new List[1 << MEAL_TYPES.length];
+        // Span of wall-clock time with a constant UTC offset, so minutes can be derived by subtraction
+        private final long startMillis;
+        private final long endMillis;
+        private final long wallClockMillisAtStart;
+        
+        DayContext(ScheduleTable schedule, ZoneId zone, long nowMillis) {
+            this.schedule = schedule;
+            
+            Instant now = Instant.ofEpochMilli(nowMillis);
+            LocalDate date = LocalDate.ofInstant(now, zone);
+            long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            
+            ZoneRules rules = zone.getRules();
+            ZoneOffsetTransition previous = rules.previousTransition(now);
+            if (previous != null && previous.getInstant().toEpochMilli() > start) {
+                start = previous.getInstant().toEpochMilli();
+            }
+            ZoneOffsetTransition next = rules.nextTransition(now);
+            if (next != null && next.getInstant().toEpochMilli() < end) {
+                end = next.getInstant().toEpochMilli();
+            }
+            this.startMillis = start;
+            this.endMillis = end;
+            this.wallClockMillisAtStart = LocalTime.ofInstant(Instant.ofEpochMilli(start), zone).toNanoOfDay() / 1_000_000;
+            
+            for (int dayOffset = 0; dayOffset < 2; dayOffset++) {
+                for (Order.MealType mealType : MEAL_TYPES) {
+                    MealWindow window = schedule.windows[mealType.ordinal()];
+                    OrderingWindow orderingWindow = new OrderingWindow(date.plusDays(dayOffset), window.orderStartTime,
+                            window.orderEndTime, window.deliveryStartTime, window.deliveryEndTime);
+                    orderingWindow.setMealType(mealType);
+                    windows[dayOffset][mealType.ordinal()] = orderingWindow;
+                }
+            }
+            
+            for (int mask = 0; mask < availableWindows.length; mask++) {
+                List<OrderingWindow> open = new ArrayList<>();
+                for (Order.MealType mealType : MEAL_TYPES) {
+                    if ((mask & (1 << mealType.ordinal())) != 0) {
+                        open.add(windows[0][mealType.ordinal()]);
+                    }
+                }
+                availableWindows[mask] = Collections.unmodifiableList(open);
+            }
+        }
         
-        return new TimeRemaining(hours, minutes, 0, true);
+        boolean covers(long nowMillis) {
+            return nowMillis >= startMillis && nowMillis < endMillis;
+        }
+        
+        int minuteOfDay(long nowMillis) {
+            long minute = (wallClockMillisAtStart + nowMillis - startMillis) / MILLIS_PER_MINUTE;
+            return (int) Math.min(Math.max(minute, 0), MINUTES_PER_DAY - 1);
+        }
     }
     
     // Inner classes for data transfer
@@ -0,0 +1,155 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ThreadingConfig;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Pauses user order statistics updates on every instance while one of them rebuilds the statistics.
+ * The rebuild holds a lease document in user_order_stats_rebuild, so only one runs at a time. Every
+ * instance polls that document and, while it exists, blocks its order writes and their statistics
+ * increments; the rebuild waits two poll intervals before reading the orders, so no increment lands
+ * between its read of the orders and its write of the counters. The lease is renewed while the rebuild
+ * runs; if its instance dies, the others resume writing once it expires.
+ */
+@Component
+public class UserOrderStatsRebuildLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserOrderStatsRebuildLease.class);
+
+    private static final String COLLECTION = "user_order_stats_rebuild";
+    private static final String LEASE_ID = "rebuild";
+
+    private final MongoTemplate mongoTemplate;
+    private final Clock clock;
+    private final long leaseMillis;
+    private final long pollMillis;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    private final ScheduledExecutorService scheduler;
+
+    // Order writes hold the read side; the poller holds the write side while a rebuild runs anywhere.
+    // A StampedLock is not owned by a thread, so shutdown can release it from outside the poller.
+    private final StampedLock writes = new StampedLock();
+    private boolean paused;
+
+    public UserOrderStatsRebuildLease(MongoTemplate mongoTemplate,
+                                      Clock clock,
+                                      @Value("${order.stats.rebuild-lease-seconds:60}") long leaseSeconds,
+                                      @Value("${order.stats.rebuild-poll-millis:1000}") long pollMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.clock = clock;
+        this.leaseMillis = leaseSeconds * 1000;
+        this.pollMillis = Math.max(pollMillis, 1);
+        this.scheduler = Executors.newScheduledThreadPool(2, ThreadingConfig.daemonThreads("order-stats-rebuild-"));
+        this.scheduler.scheduleWithFixedDelay(this::poll, this.pollMillis, this.pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        writes.tryUnlockWrite();
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(LEASE_ID).and("owner").is(owner)), COLLECTION);
+    }
+
+    /**
+     * Lock held around an order write and its statistics update; blocks while a rebuild runs
+     */
+    public Lock writeLock() {
+        return writes.asReadLock();
+    }
+
+    /**
+     * Run a rebuild while every instance's statistics writes are paused, or return empty without running it
+     * when another rebuild holds the lease
+     */
+    public <T> Optional<T> runExclusively(Supplier<T> rebuild) {
+        if (!tryLease()) {
+            return Optional.empty();
+        }
+        long period = Math.max(leaseMillis / 3, 1);
+        ScheduledFuture<?> renewal = scheduler.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+        try {
+            // Every instance, this one included, sees the lease within a poll interval
+            Thread.sleep(2 * pollMillis);
+            return Optional.of(rebuild.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pausing user order statistics writes", e);
+        } finally {
+            renewal.cancel(false);
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(LEASE_ID).and("owner").is(owner)), COLLECTION);
+        }
+    }
+
+    private boolean tryLease() {
+        try {
+            mongoTemplate.insert(new Document("_id", LEASE_ID).append("owner", owner).append("expiresAt", expiresAt()),
+                    COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Held; it is free only if its holder stopped renewing
+            Query expired = Query.query(Criteria.where("_id").is(LEASE_ID).and("expiresAt").lt(new Date(clock.millis())));
+            return mongoTemplate.updateFirst(expired, new Update().set("owner", owner).set("expiresAt", expiresAt()),
+                    COLLECTION).getModifiedCount() == 1;
+        }
+    }
+
+    private void renew() {
+        try {
+            Query ours = Query.query(Criteria.where("_id").is(LEASE_ID).and("owner").is(owner));
+            if (mongoTemplate.updateFirst(ours, new Update().set("expiresAt", expiresAt()), COLLECTION).getMatchedCount() == 0) {
+                logger.error("The user order statistics rebuild lease was lost; statistics writes may resume mid-rebuild");
+            }
+        } catch (RuntimeException e) {
+            // A failed renewal must not cancel the schedule
+            logger.warn("Renewing the user order statistics rebuild lease failed", e);
+        }
+    }
+
+    private void poll() {
+        try {
+            boolean rebuilding = mongoTemplate.exists(
+                    Query.query(Criteria.where("_id").is(LEASE_ID).and("expiresAt").gte(new Date(clock.millis()))),
+                    COLLECTION);
+            if (rebuilding && !paused) {
+                // Waits for the writes in progress to finish
+                writes.writeLock();
+                paused = true;
+                logger.info("User order statistics rebuild running; pausing order writes");
+            } else if (!rebuilding && paused) {
+                writes.tryUnlockWrite();
+                paused = false;
+                logger.info("User order statistics rebuild finished; resuming order writes");
+            }
+        } catch (RuntimeException e) {
+            // A failed poll keeps the current state and must not cancel the schedule
+            logger.warn("Checking for a user order statistics rebuild failed", e);
+        }
+    }
+
+    private Date expiresAt() {
+        return new Date(clock.millis() + leaseMillis);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.todo.config;
+
+import com.example.todo.model.MenuItem;
+import com.example.todo.model.Restaurant;
+import com.example.todo.service.MenuService;
+import com.example.todo.service.RestaurantService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the read endpoints on virtual threads under JFR and fails if any request pinned its carrier thread
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningTest {
+
+    private static final int REQUESTS = 500;
+    private static final int CLIENTS = 50;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private ThreadingConfig threadingConfig;
+
+    @Test
+    void requestsDoNotPinCarrierThreads() throws Exception {
+        assertTrue(threadingConfig.isVirtualThreads());
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Pinning Test Kitchen");
+        restaurant.setActive(true);
+        restaurant.setDeliveryAreas(List.of("560001"));
+        String restaurantId = restaurantService.createRestaurant(restaurant).getId();
+        menuService.createMenuItem(new MenuItem("Veg Thali", "Rice, dal and two curries", new BigDecimal("149.00"), restaurantId));
+
+        List<String> paths = List.of(
+                "/api/menu/restaurant/" + restaurantId,
+                "/api/restaurants/" + restaurantId,
+                "/api/restaurants/delivery-area/560001",
+                "/api/menu/search?name=thali");
+
+        Path dump = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            recording.start();
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            try {
+                List<Future<Integer>> statuses = new ArrayList<>();
+                for (int i = 0; i < REQUESTS; i++) {
+                    String path = paths.get(i % paths.size());
+                    statuses.add(clients.submit(() -> restTemplate.getForEntity(path, String.class).getStatusCode().value()));
+                }
+                for (Future<Integer> status : statuses) {
+                    assertEquals(200, status.get());
+                }
+            } finally {
+                clients.shutdownNow();
+            }
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> pinned = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .toList();
+        Files.deleteIfExists(dump);
+        assertTrue(pinned.isEmpty(), () -> "Carrier threads were pinned:\n" + pinned.stream()
+                .map(event -> String.valueOf(event.getStackTrace()))
+                .collect(Collectors.joining("\n")));
+    }
+}
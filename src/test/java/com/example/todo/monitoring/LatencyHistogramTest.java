@@ -0,0 +1,69 @@
+package com.example.todo.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final long SLICE_MILLIS = 10_000;
+
+    @Test
+    void bucketsCoverEveryLatencyWithBoundedError() {
+        for (long micros = 0; micros < 1_000_000; micros += 7) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            long upper = LatencyHistogram.bucketUpperBound(bucket);
+            assertTrue(upper >= micros, () -> "bucket below " + bucket);
+            assertTrue(upper <= micros + micros / 8, () -> "bucket too wide for " + bucket);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.bucketUpperBound(bucket - 1) < micros);
+            }
+        }
+    }
+
+    @Test
+    void reportsPercentilesWithinTheWindow() {
+        LatencyHistogram histogram = new LatencyHistogram(SLICE_MILLIS, 90);
+        long now = 1_000_000_000L;
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i), now);
+        }
+
+        LatencyHistogram.Summary summary = histogram.summarize(60_000, now);
+        assertEquals(100, summary.getCount());
+        assertWithin(50_000, summary.getP50Micros());
+        assertWithin(95_000, summary.getP95Micros());
+        assertWithin(99_000, summary.getP99Micros());
+        assertEquals(100_000, summary.getMaxMicros());
+    }
+
+    @Test
+    void forgetsSlicesThatLeftTheWindow() {
+        LatencyHistogram histogram = new LatencyHistogram(SLICE_MILLIS, 90);
+        long start = 1_000_000_000L;
+        histogram.record(TimeUnit.SECONDS.toNanos(2), start);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5), start + 120_000);
+
+        LatencyHistogram.Summary lastMinute = histogram.summarize(60_000, start + 120_000);
+        assertEquals(1, lastMinute.getCount());
+        assertWithin(5_000, lastMinute.getP99Micros());
+
+        LatencyHistogram.Summary lastFiveMinutes = histogram.summarize(300_000, start + 120_000);
+        assertEquals(2, lastFiveMinutes.getCount());
+        assertEquals(2_000_000, lastFiveMinutes.getMaxMicros());
+
+        // After a full turn of the ring the old slice is reused and cleared
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1), start + 900_000);
+        LatencyHistogram.Summary lastFifteenMinutes = histogram.summarize(900_000, start + 900_000);
+        assertEquals(2, lastFifteenMinutes.getCount());
+        assertEquals(5_000, lastFifteenMinutes.getMaxMicros());
+    }
+
+    private static void assertWithin(long expectedMicros, long actualMicros) {
+        assertTrue(actualMicros >= expectedMicros && actualMicros <= expectedMicros + expectedMicros / 8,
+                () -> "expected about " + expectedMicros + " but was " + actualMicros);
+    }
+}
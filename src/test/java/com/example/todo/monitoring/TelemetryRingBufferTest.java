@@ -0,0 +1,46 @@
+package com.example.todo.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryRingBufferTest {
+
+    @Test
+    void returnsSamplesInsideTheWindowOldestFirst() {
+        TelemetryRingBuffer buffer = new TelemetryRingBuffer(List.of("heap", "threads"), 10);
+        for (int i = 1; i <= 5; i++) {
+            buffer.append(i * 1000L, i * 10, i);
+        }
+
+        Map<String, Object> series = buffer.since(3000);
+        assertArrayEquals(new long[] {3000, 4000, 5000}, (long[]) series.get("timestamps"));
+        assertArrayEquals(new double[] {30, 40, 50}, (double[]) series.get("heap"));
+        assertArrayEquals(new double[] {3, 4, 5}, (double[]) series.get("threads"));
+        assertEquals(Map.of("heap", 50.0, "threads", 5.0), buffer.latest());
+    }
+
+    @Test
+    void overwritesTheOldestSamplesOnceFull() {
+        TelemetryRingBuffer buffer = new TelemetryRingBuffer(List.of("heap"), 4);
+        for (int i = 1; i <= 7; i++) {
+            buffer.append(i * 1000L, i);
+        }
+
+        Map<String, Object> series = buffer.since(0);
+        assertArrayEquals(new long[] {4000, 5000, 6000, 7000}, (long[]) series.get("timestamps"));
+        assertArrayEquals(new double[] {4, 5, 6, 7}, (double[]) series.get("heap"));
+    }
+
+    @Test
+    void isEmptyBeforeTheFirstSample() {
+        TelemetryRingBuffer buffer = new TelemetryRingBuffer(List.of("heap"), 4);
+        assertEquals(0, ((long[]) buffer.since(0).get("timestamps")).length);
+        assertTrue(buffer.latest().isEmpty());
+    }
+}
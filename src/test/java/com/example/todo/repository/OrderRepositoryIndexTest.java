@@ -0,0 +1,136 @@
+package com.example.todo.repository;
+
+import com.example.todo.config.MongoIndexConfig;
+import com.example.todo.model.Order;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every OrderRepository query against MongoDB with the profiler enabled
+ * and fails if any winning plan is a collection scan.
+ */
+@SpringBootTest
+class OrderRepositoryIndexTest {
+
+    private static final String SAMPLE_USER_ID = "index-test-user";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
+    @BeforeEach
+    void setUp() {
+        mongoIndexConfig.ensureIndexes();
+
+        // The planner reports EOF instead of a real plan when the collection does not exist yet
+        Order order = new Order(SAMPLE_USER_ID, "index-test-restaurant", Order.MealType.LUNCH);
+        order.setOrderNumber("ORD-INDEX-TEST");
+        orderRepository.save(order);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.findByOrderNumber("ORD-INDEX-TEST").ifPresent(orderRepository::delete);
+    }
+
+    @Test
+    void everyRepositoryQueryUsesAnIndex() throws Exception {
+        Map<String, String> collectionScans = new TreeMap<>();
+        Map<String, Integer> unprofiled = new TreeMap<>();
+
+        for (Method method : OrderRepository.class.getDeclaredMethods()) {
+            Object[] args = sampleArguments(method);
+            List<String> plans = profile(() -> method.invoke(orderRepository, args));
+
+            if (plans.isEmpty()) {
+                unprofiled.put(method.getName(), 0);
+            }
+            plans.stream()
+                    .filter(plan -> plan.contains("COLLSCAN"))
+                    .findFirst()
+                    .ifPresent(plan -> collectionScans.put(method.getName(), plan));
+        }
+
+        assertTrue(unprofiled.isEmpty(), () -> "No query was recorded for: " + unprofiled.keySet());
+        assertTrue(collectionScans.isEmpty(), () -> "Queries without a supporting index: " + collectionScans);
+    }
+
+    private List<String> profile(RepositoryCall call) throws Exception {
+        MongoDatabase db = mongoTemplate.getDb();
+        db.runCommand(new Document("profile", 0));
+        db.getCollection("system.profile").drop();
+        db.runCommand(new Document("profile", 2));
+        try {
+            call.run();
+        } finally {
+            db.runCommand(new Document("profile", 0));
+        }
+
+        List<String> plans = new ArrayList<>();
+        db.getCollection("system.profile")
+                .find(new Document("ns", db.getName() + "." + mongoTemplate.getCollectionName(Order.class)))
+                .forEach(entry -> {
+                    Object planSummary = entry.get("planSummary");
+                    if (planSummary != null) {
+                        plans.add(planSummary.toString());
+                    }
+                });
+        return plans;
+    }
+
+    private Object[] sampleArguments(Method method) {
+        Type[] parameterTypes = method.getGenericParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            args[i] = sampleArgument(parameterTypes[i]);
+        }
+        return args;
+    }
+
+    private Object sampleArgument(Type type) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class) {
+            return List.of(sampleArgument(parameterized.getActualTypeArguments()[0]));
+        }
+        Class<?> rawType = (Class<?>) type;
+        if (rawType == String.class) {
+            return SAMPLE_USER_ID;
+        }
+        if (rawType.isEnum()) {
+            return rawType.getEnumConstants()[0];
+        }
+        if (rawType == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (rawType == double.class) {
+            return 0.0;
+        }
+        throw new IllegalArgumentException("No sample value for parameter type " + type);
+    }
+
+    @FunctionalInterface
+    private interface RepositoryCall {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.todo.search;
+
+import com.example.todo.model.MenuItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MenuSearchIndexTest {
+
+    private MenuSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MenuSearchIndex();
+        index.rebuild(List.of(
+                item("1", "Butter Chicken", "Creamy tomato curry", "Main Course", "r1", List.of("LUNCH", "DINNER")),
+                item("2", "Masala Dosa", "Crispy crêpe with potato filling", "Breakfast", "r2", List.of("BREAKFAST")),
+                item("3", "Chicken Biryani", "Basmati rice layered with chicken", "Main Course", "r1", List.of("Lunch")),
+                item("4", "Tomato Soup", "Slow cooked in chicken stock", "Soups", "r2", List.of("DINNER"))));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertEquals(List.of("Butter Chicken", "Chicken Biryani", "Tomato Soup"), names(index.search("chicken", null, null, false, 10)));
+        assertEquals(List.of("Chicken Biryani"), names(index.search("chicken bir", null, null, false, 10)));
+    }
+
+    @Test
+    void toleratesTyposAndAccents() {
+        assertEquals(List.of("Butter Chicken", "Chicken Biryani", "Tomato Soup"), names(index.search("chiken", null, null, false, 10)));
+        assertEquals(List.of("Masala Dosa"), names(index.search("crepe", null, null, false, 10)));
+    }
+
+    @Test
+    void appliesRestaurantAndMealTypeFilters() {
+        assertEquals(List.of("Butter Chicken"), names(index.search("chicken", "r1", "dinner", false, 10)));
+        assertTrue(index.search("biryani", "r2", null, false, 10).isEmpty());
+    }
+
+    @Test
+    void updatesReplaceTheIndexedDocument() {
+        index.update(item("1", "Paneer Tikka", null, "Starter", "r1", null));
+
+        assertEquals(List.of("Chicken Biryani", "Tomato Soup"), names(index.search("chicken", null, null, false, 10)));
+        assertEquals(List.of("Paneer Tikka"), names(index.search("paner", null, null, false, 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void reloadKeepsUpdatesMadeWhileReadingTheSnapshot() {
+        List<MenuItem> staleSnapshot = List.of(
+                item("1", "Butter Chicken", null, "Main Course", "r1", null),
+                item("2", "Masala Dosa", null, "Breakfast", "r2", null));
+
+        index.reload(() -> {
+            index.update(item("1", "Paneer Tikka", null, "Starter", "r1", null));
+            return staleSnapshot;
+        });
+
+        assertEquals(List.of("Paneer Tikka"), names(index.search("paneer", null, null, false, 10)));
+        assertTrue(index.search("butter", null, null, false, 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    private static MenuItem item(String id, String name, String description, String category,
+                                 String restaurantId, List<String> mealTypes) {
+        MenuItem menuItem = new MenuItem(name, description, BigDecimal.TEN, restaurantId);
+        menuItem.setId(id);
+        menuItem.setCategory(category);
+        menuItem.setMealTypes(mealTypes);
+        menuItem.setAvailable(true);
+        return menuItem;
+    }
+
+    private static List<String> names(List<MenuItem> menuItems) {
+        return menuItems.stream().map(MenuItem::getName).collect(Collectors.toList());
+    }
+}
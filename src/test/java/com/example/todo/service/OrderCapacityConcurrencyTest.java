@@ -0,0 +1,101 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Order;
+import com.example.todo.model.OrderSlotCounter;
+import com.example.todo.model.Restaurant;
+import com.example.todo.repository.OrderSlotCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Races many orders for a fresh slot, including the creation of its counter, and checks that
+ * exactly the slot's capacity is admitted
+ */
+@SpringBootTest
+class OrderCapacityConcurrencyTest {
+
+    private static final int ORDERS = 200;
+    private static final int CAPACITY = 50;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderCapacityService orderCapacityService;
+
+    @Autowired
+    private OrderSlotCounterRepository orderSlotCounterRepository;
+
+    private Restaurant restaurant;
+    private LocalDateTime orderTime;
+
+    @BeforeEach
+    void setUp() {
+        Restaurant.DeliveryTimeWindow lunchWindow = new Restaurant.DeliveryTimeWindow();
+        lunchWindow.setMaxOrders(CAPACITY);
+        restaurant = new Restaurant();
+        restaurant.setId("capacity-test-" + UUID.randomUUID());
+        restaurant.setLunchWindow(lunchWindow);
+        orderTime = LocalDateTime.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderSlotCounterRepository.deleteById(
+                OrderSlotCounter.slotId(restaurant.getId(), Order.MealType.LUNCH, orderTime.toLocalDate()));
+    }
+
+    @Test
+    void admitsExactlyTheCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < ORDERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderCapacityService.reserve(lunchOrder(), restaurant);
+                        return true;
+                    } catch (OrderCapacityService.SlotFullException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int admitted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    admitted++;
+                }
+            }
+            assertEquals(CAPACITY, admitted);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        OrderSlotCounter counter = orderSlotCounterRepository.findById(
+                OrderSlotCounter.slotId(restaurant.getId(), Order.MealType.LUNCH, orderTime.toLocalDate())).orElseThrow();
+        assertEquals(CAPACITY, counter.getCount());
+    }
+
+    private Order lunchOrder() {
+        Order order = new Order();
+        order.setRestaurantId(restaurant.getId());
+        order.setMealType(Order.MealType.LUNCH);
+        order.setOrderTime(orderTime);
+        return order;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.todo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderNumberGeneratorTest {
+
+    private static final int NODES = 8;
+    private static final int THREADS_PER_NODE = 4;
+    private static final int IDS_PER_THREAD = 25_000;
+
+    @Test
+    void orderNumbersAreUniqueAcrossThreadsAndNodes() throws Exception {
+        Clock clock = Clock.systemUTC();
+        List<OrderNumberGenerator> nodes = new ArrayList<>();
+        for (int node = 0; node < NODES; node++) {
+            nodes.add(new OrderNumberGenerator(node, clock));
+        }
+
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (OrderNumberGenerator generator : nodes) {
+                for (int t = 0; t < THREADS_PER_NODE; t++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        String previous = "";
+                        boolean increasing = true;
+                        for (int i = 0; i < IDS_PER_THREAD; i++) {
+                            String orderNumber = generator.next();
+                            increasing &= orderNumber.compareTo(previous) > 0;
+                            seen.add(orderNumber);
+                            previous = orderNumber;
+                        }
+                        return increasing;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "order numbers from one thread must be strictly increasing");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(NODES * THREADS_PER_NODE * IDS_PER_THREAD, seen.size());
+    }
+
+    @Test
+    void exhaustedSequenceRollsIntoNextMillisecond() {
+        // A frozen clock forces every id into the same millisecond
+        Clock frozen = Clock.fixed(Instant.parse("2024-10-17T06:30:00Z"), ZoneOffset.UTC);
+        OrderNumberGenerator generator = new OrderNumberGenerator(3, frozen);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 3 * (1 << OrderNumberGenerator.SEQUENCE_BITS); i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void orderNumbersHaveFixedWidth() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID, Clock.systemUTC());
+        String orderNumber = generator.next();
+
+        assertTrue(orderNumber.startsWith(OrderNumberGenerator.PREFIX));
+        assertEquals(16, orderNumber.length());
+        assertEquals("ORD0000000000000", OrderNumberGenerator.encode(0));
+    }
+
+    @Test
+    void nodeIdOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1, Clock.systemUTC()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Restaurant;
+import com.example.todo.repository.RestaurantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Posts hundreds of ratings in parallel and checks that none of them is lost
+ */
+@SpringBootTest
+class RestaurantRatingConcurrencyTest {
+
+    private static final int RATERS = 400;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private String restaurantId;
+
+    @BeforeEach
+    void setUp() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Rating Test " + UUID.randomUUID());
+        restaurant.setActive(true);
+        restaurantId = restaurantService.createRestaurant(restaurant).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        restaurantRepository.deleteById(restaurantId);
+    }
+
+    @Test
+    void concurrentRatingsAreNotLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Restaurant>> results = new ArrayList<>();
+        double expectedSum = 0;
+        try {
+            for (int i = 0; i < RATERS; i++) {
+                double rating = 1 + (i % 5);
+                expectedSum += rating;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return restaurantService.updateRestaurantRating(restaurantId, rating);
+                }));
+            }
+            start.countDown();
+            for (Future<Restaurant> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+        assertEquals(RATERS, restaurant.getReviewCount());
+        assertEquals(expectedSum, restaurant.getRatingSum(), 1e-9);
+        assertEquals(expectedSum / RATERS, restaurant.getRating(), 1e-9);
+        // Inserted at version 0, then one version per rating
+        assertEquals(Long.valueOf(RATERS), restaurant.getVersion());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeBasedOrderingServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+    private static final LocalDate TODAY = LocalDate.of(2024, 10, 17);
+
+    private static TimeBasedOrderingService serviceAt(int hour, int minute) {
+        LocalDateTime now = LocalDateTime.of(TODAY, LocalTime.of(hour, minute));
+        return new TimeBasedOrderingService(Clock.fixed(now.atZone(ZONE).toInstant(), ZONE));
+    }
+
+    @Test
+    void lunchWindowIsOpenFromStartUntilJustBeforeEnd() {
+        assertFalse(serviceAt(5, 59).isOrderingAllowed(Order.MealType.LUNCH));
+        assertTrue(serviceAt(6, 0).isOrderingAllowed(Order.MealType.LUNCH));
+        assertTrue(serviceAt(9, 59).isOrderingAllowed(Order.MealType.LUNCH));
+        assertFalse(serviceAt(10, 0).isOrderingAllowed(Order.MealType.LUNCH));
+    }
+
+    @Test
+    void breakfastWindowWrapsAroundMidnight() {
+        assertTrue(serviceAt(23, 0).isOrderingAllowed(Order.MealType.BREAKFAST));
+        assertTrue(serviceAt(2, 0).isOrderingAllowed(Order.MealType.BREAKFAST));
+        assertFalse(serviceAt(8, 0).isOrderingAllowed(Order.MealType.BREAKFAST));
+
+        TimeBasedOrderingService.TimeRemaining remaining =
+                serviceAt(22, 0).getTimeRemainingForOrdering(Order.MealType.BREAKFAST);
+        assertTrue(remaining.isAvailable());
+        assertEquals(9, remaining.getHours());
+        assertEquals(30, remaining.getMinutes());
+    }
+
+    @Test
+    void availableWindowsListOnlyOpenMeals() {
+        List<TimeBasedOrderingService.OrderingWindow> windows = serviceAt(7, 0).getAvailableOrderingWindows();
+
+        assertEquals(2, windows.size());
+        assertEquals(Order.MealType.BREAKFAST, windows.get(0).getMealType());
+        assertEquals(Order.MealType.LUNCH, windows.get(1).getMealType());
+        assertEquals(TODAY, windows.get(0).getDate());
+    }
+
+    @Test
+    void nextWindowIsTomorrowOnlyOnceTodaysWindowHasEnded() {
+        assertEquals(TODAY, serviceAt(5, 0).getNextOrderingWindow(Order.MealType.LUNCH).getDate());
+        assertEquals(TODAY.plusDays(1), serviceAt(11, 0).getNextOrderingWindow(Order.MealType.LUNCH).getDate());
+        assertEquals(TODAY, serviceAt(18, 0).getNextOrderingWindow(Order.MealType.BREAKFAST).getDate());
+    }
+
+    @Test
+    void reconfiguredWindowRebuildsTheSchedule() {
+        TimeBasedOrderingService service = serviceAt(11, 0);
+        assertFalse(service.isOrderingAllowed(Order.MealType.LUNCH));
+
+        service.updateMealWindow(Order.MealType.LUNCH, LocalTime.of(6, 0), LocalTime.of(11, 30),
+                LocalTime.of(13, 15), LocalTime.of(14, 0));
+
+        assertTrue(service.isOrderingAllowed(Order.MealType.LUNCH));
+        assertEquals(30, service.getTimeRemainingForOrdering(Order.MealType.LUNCH).getMinutes());
+    }
+}